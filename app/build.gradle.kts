@@ -37,6 +37,17 @@ android {
         viewBinding = true
     }
 
+    // JVM unit tests: android.util.Log and friends return defaults instead of throwing "not mocked"
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+        // Timing benchmarks (@Category(Benchmark.class)) only run with -Pbenchmarks
+        unitTests.all {
+            if (!project.hasProperty("benchmarks")) {
+                it.useJUnit { excludeCategories("com.example.currencyconverter.Benchmark") }
+            }
+        }
+    }
+
     // 🔽 Testlerde -Xlint:deprecation gibi uyarıları göstermek istersen ekle:
     tasks.withType<JavaCompile>().configureEach {
         options.compilerArgs.add("-Xlint:deprecation")
@@ -52,17 +63,24 @@ dependencies {
     // ✅ Retrofit
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
+    implementation("com.squareup.okhttp3:okhttp:4.10.0")
 
     // ✅ MVVM - ViewModel & LiveData (2nd Semester)
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.7.0")
     implementation("androidx.lifecycle:lifecycle-livedata:2.7.0")
     implementation("androidx.lifecycle:lifecycle-runtime:2.7.0")
     implementation("androidx.lifecycle:lifecycle-common-java8:2.7.0")
+    // viewModelScope for PagingLiveData.cachedIn
+    implementation("androidx.lifecycle:lifecycle-viewmodel-ktx:2.7.0")
 
     // ✅ Room Database (2nd Semester)
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
 
+    // ✅ Paging 3 - Java API via ListenableFuture
+    implementation("androidx.paging:paging-runtime:3.2.1")
+    implementation("androidx.paging:paging-guava:3.2.1")
+
     // ✅ Navigation Component (2nd Semester)
     implementation("androidx.navigation:navigation-fragment:2.7.6")
     implementation("androidx.navigation:navigation-ui:2.7.6")
@@ -92,6 +110,8 @@ dependencies {
 
     // ✅ Mockito (unit test için)
     testImplementation("org.mockito:mockito-core:5.2.0")
+    // LiveData on the test thread (InstantTaskExecutorRule)
+    testImplementation("androidx.arch.core:core-testing:2.2.0")
 
     // ✅ Android özel Mockito (instrumentation test için)
     androidTestImplementation("org.mockito:mockito-android:5.2.0")
@@ -7,6 +7,7 @@ import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.NetworkType;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
+import com.example.currencyconverter.data.local.cache.RateMemoryCache;
 import dagger.hilt.android.HiltAndroidApp;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
@@ -56,6 +57,19 @@ public class CurrencyConverterApplication extends Application implements Configu
                 updateWorkRequest);
     }
 
+    /**
+     * Release decoded rate snapshots under memory pressure
+     * They are rebuilt from Room on the next conversion.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        RateMemoryCache memoryCache = RateMemoryCache.peekInstance();
+        if (memoryCache != null) {
+            memoryCache.onTrimMemory(level);
+        }
+    }
+
     @Override
     public Configuration getWorkManagerConfiguration() {
         return workConfiguration;
@@ -0,0 +1,44 @@
+package com.example.currencyconverter.data.history;
+
+/**
+ * Reads a bit stream written by {@link BitWriter} from a slice of a byte array
+ */
+final class BitReader {
+
+    private final byte[] data;
+    private final int offset;
+    private final long limitBits;
+    private long position;
+
+    BitReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.limitBits = (long) length * 8;
+    }
+
+    boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    /**
+     * Read {@code count} bits (0 to 64) as an unsigned value
+     *
+     * @throws IllegalArgumentException if the slice is exhausted
+     */
+    long readBits(int count) {
+        if (position + count > limitBits) {
+            throw new IllegalArgumentException("Truncated history column");
+        }
+        long result = 0;
+        while (count > 0) {
+            int byteIndex = offset + (int) (position >>> 3);
+            int available = 8 - (int) (position & 7);
+            int take = Math.min(available, count);
+            int bits = ((data[byteIndex] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+            result = (result << take) | bits;
+            position += take;
+            count -= take;
+        }
+        return result;
+    }
+}
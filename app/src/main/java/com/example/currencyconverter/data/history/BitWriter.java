@@ -0,0 +1,54 @@
+package com.example.currencyconverter.data.history;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit stream, most significant bit first
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private long bitCount;
+
+    BitWriter(int initialBytes) {
+        buffer = new byte[Math.max(initialBytes, 8)];
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Write the low {@code count} bits of {@code value} (0 to 64)
+     */
+    void writeBits(long value, int count) {
+        ensureCapacity(bitCount + count);
+        while (count > 0) {
+            int byteIndex = (int) (bitCount >>> 3);
+            int free = 8 - (int) (bitCount & 7);
+            int take = Math.min(free, count);
+            int bits = (int) (value >>> (count - take)) & ((1 << take) - 1);
+            buffer[byteIndex] |= (byte) (bits << (free - take));
+            bitCount += take;
+            count -= take;
+        }
+    }
+
+    /**
+     * Bytes written so far, the last one padded with zero bits
+     */
+    int byteLength() {
+        return (int) ((bitCount + 7) >>> 3);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, byteLength());
+    }
+
+    private void ensureCapacity(long bits) {
+        int bytes = (int) ((bits + 7) >>> 3);
+        if (bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(bytes, buffer.length * 2));
+        }
+    }
+}
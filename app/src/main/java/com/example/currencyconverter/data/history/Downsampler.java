@@ -0,0 +1,83 @@
+package com.example.currencyconverter.data.history;
+
+/**
+ * Shape-preserving downsampling of a rate series for charts
+ *
+ * Largest-Triangle-Three-Buckets: the first and last points are kept, the
+ * rest are split into equal buckets and from each bucket the point forming
+ * the largest triangle with the previously kept point and the average of
+ * the next bucket is kept. Peaks and dips survive, flat stretches collapse.
+ * Runs in one pass over primitive arrays.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * @return At most {@code maxPoints} points of {@code series}; the series itself if it is already small enough
+     */
+    public static RateSeries largestTriangleThreeBuckets(RateSeries series, int maxPoints) {
+        int size = series.size();
+        if (maxPoints >= size) {
+            return series;
+        }
+        if (maxPoints <= 0) {
+            return new RateSeries(new long[0], new double[0], 0);
+        }
+        if (maxPoints < 3) {
+            // Too few points for buckets: keep the endpoints
+            long[] times = { series.getTime(0), series.getTime(size - 1) };
+            double[] rates = { series.getRate(0), series.getRate(size - 1) };
+            return new RateSeries(times, rates, maxPoints);
+        }
+
+        long origin = series.getTime(0);
+        long[] times = new long[maxPoints];
+        double[] rates = new double[maxPoints];
+        times[0] = origin;
+        rates[0] = series.getRate(0);
+
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int selected = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += series.getTime(i) - origin;
+                averageY += series.getRate(i);
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double selectedX = series.getTime(selected) - origin;
+            double selectedY = series.getRate(selected);
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the maximum
+                double area = Math.abs((selectedX - averageX) * (series.getRate(i) - selectedY)
+                        - (selectedX - (series.getTime(i) - origin)) * (averageY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+
+            times[bucket + 1] = series.getTime(best);
+            rates[bucket + 1] = series.getRate(best);
+            selected = best;
+        }
+
+        times[maxPoints - 1] = series.getTime(size - 1);
+        rates[maxPoints - 1] = series.getRate(size - 1);
+        return new RateSeries(times, rates, maxPoints);
+    }
+}
@@ -0,0 +1,443 @@
+package com.example.currencyconverter.data.history;
+
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateTable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One compressed block of consecutive rate snapshots for a single base
+ *
+ * Columnar: one bit-packed column of timestamps plus one per currency, each
+ * byte-aligned and addressable on its own, so reading a pair only decodes the
+ * timestamps and two value columns out of the ~160 stored.
+ *
+ * - Timestamps (whole seconds): first value raw, then delta-of-delta with
+ *   variable-length prefixes 0 / 10 / 110 / 1110 / 1111. A regular refresh
+ *   interval costs one bit per point.
+ * - Rates: first value raw, then XOR with the previous value keeping only the
+ *   meaningful bits (Gorilla encoding). An unchanged rate costs one bit.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int     FORMAT_VERSION
+ *   int     pointCount
+ *   int     currencyCount
+ *   byte[3] code           x currencyCount
+ *   int     timestampBytes
+ *   int     columnBytes    x currencyCount
+ *   ...     timestamp column, then value columns in code order
+ * </pre>
+ *
+ * A currency missing from some snapshots holds NaN at those points.
+ */
+public final class HistoryChunk {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int CODE_LENGTH = 3;
+
+    private final byte[] data;
+    private final int pointCount;
+    private final int[] ordinals;
+    private final int timestampOffset;
+    private final int timestampBytes;
+    private final int[] columnOffsets;
+    private final int[] columnBytes;
+
+    // Column index per ordinal, -1 if the currency is not in this chunk
+    private final int[] columnByOrdinal;
+
+    private long[] timestamps;
+
+    private HistoryChunk(byte[] data, int pointCount, int[] ordinals, int timestampOffset, int timestampBytes,
+            int[] columnOffsets, int[] columnBytes) {
+        this.data = data;
+        this.pointCount = pointCount;
+        this.ordinals = ordinals;
+        this.timestampOffset = timestampOffset;
+        this.timestampBytes = timestampBytes;
+        this.columnOffsets = columnOffsets;
+        this.columnBytes = columnBytes;
+
+        int maxOrdinal = -1;
+        for (int ordinal : ordinals) {
+            maxOrdinal = Math.max(maxOrdinal, ordinal);
+        }
+        columnByOrdinal = new int[maxOrdinal + 1];
+        Arrays.fill(columnByOrdinal, -1);
+        for (int i = 0; i < ordinals.length; i++) {
+            columnByOrdinal[ordinals[i]] = i;
+        }
+    }
+
+    /**
+     * Parse the header of an encoded chunk; columns are decoded on demand
+     *
+     * @throws IllegalArgumentException if the blob holds an unknown format
+     */
+    public static HistoryChunk wrap(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int format = buffer.getInt();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported history format: " + format);
+            }
+            int pointCount = buffer.getInt();
+            int currencyCount = buffer.getInt();
+            if (pointCount <= 0 || currencyCount < 0) {
+                throw new IllegalArgumentException("Corrupt history chunk");
+            }
+
+            int[] ordinals = new int[currencyCount];
+            byte[] code = new byte[CODE_LENGTH];
+            for (int i = 0; i < currencyCount; i++) {
+                buffer.get(code);
+                ordinals[i] = CurrencyCodes.intern(new String(code, StandardCharsets.US_ASCII));
+            }
+
+            int timestampBytes = buffer.getInt();
+            int[] columnBytes = new int[currencyCount];
+            for (int i = 0; i < currencyCount; i++) {
+                columnBytes[i] = buffer.getInt();
+            }
+
+            int timestampOffset = buffer.position();
+            int[] columnOffsets = new int[currencyCount];
+            int offset = timestampOffset + timestampBytes;
+            for (int i = 0; i < currencyCount; i++) {
+                columnOffsets[i] = offset;
+                offset += columnBytes[i];
+            }
+            if (offset > data.length) {
+                throw new IllegalArgumentException("Truncated history chunk");
+            }
+            return new HistoryChunk(data, pointCount, ordinals, timestampOffset, timestampBytes,
+                    columnOffsets, columnBytes);
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated history chunk", e);
+        }
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public long getStartTime() {
+        return getTimestamps()[0];
+    }
+
+    public long getEndTime() {
+        return getTimestamps()[pointCount - 1];
+    }
+
+    /**
+     * Point times in milliseconds (whole seconds), ascending
+     * Decoded once and kept; callers must not modify the array.
+     */
+    public synchronized long[] getTimestamps() {
+        if (timestamps == null) {
+            timestamps = readTimestamps(new BitReader(data, timestampOffset, timestampBytes), pointCount);
+        }
+        return timestamps;
+    }
+
+    /**
+     * Binary search for the last point at or before {@code time}
+     *
+     * @return The point index, or -1 if the chunk starts after {@code time}
+     */
+    public int indexAt(long time) {
+        int index = Arrays.binarySearch(getTimestamps(), time);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Index of the first point at or after {@code time}, or the point count if there is none
+     */
+    public int indexFrom(long time) {
+        int index = Arrays.binarySearch(getTimestamps(), time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public boolean hasCurrency(int ordinal) {
+        return ordinal >= 0 && ordinal < columnByOrdinal.length && columnByOrdinal[ordinal] >= 0;
+    }
+
+    /**
+     * Decode the rates of a single currency; the other columns are not touched
+     *
+     * @return One rate per point, all NaN if the currency is not in this chunk
+     */
+    public double[] getColumn(int ordinal) {
+        double[] values = new double[pointCount];
+        if (!hasCurrency(ordinal)) {
+            Arrays.fill(values, Double.NaN);
+            return values;
+        }
+        int column = columnByOrdinal[ordinal];
+        readValues(new BitReader(data, columnOffsets[column], columnBytes[column]), values, pointCount);
+        return values;
+    }
+
+    // Delta-of-delta timestamps
+
+    private static void writeTimestamps(BitWriter out, long[] seconds, int count) {
+        out.writeBits(seconds[0], 64);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = seconds[i] - seconds[i - 1];
+            long dod = delta - previousDelta;
+            if (dod == 0) {
+                out.writeBit(false);
+            } else if (dod >= -63 && dod <= 64) {
+                out.writeBits(0b10, 2);
+                out.writeBits(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                out.writeBits(0b110, 3);
+                out.writeBits(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(dod + 2047, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(dod, 64);
+            }
+            previousDelta = delta;
+        }
+    }
+
+    private static long[] readTimestamps(BitReader in, int count) {
+        long[] times = new long[count];
+        long previous = in.readBits(64);
+        long previousDelta = 0;
+        times[0] = previous * 1000;
+        for (int i = 1; i < count; i++) {
+            long dod;
+            if (!in.readBit()) {
+                dod = 0;
+            } else if (!in.readBit()) {
+                dod = in.readBits(7) - 63;
+            } else if (!in.readBit()) {
+                dod = in.readBits(9) - 255;
+            } else if (!in.readBit()) {
+                dod = in.readBits(12) - 2047;
+            } else {
+                dod = in.readBits(64);
+            }
+            previousDelta += dod;
+            previous += previousDelta;
+            times[i] = previous * 1000;
+        }
+        return times;
+    }
+
+    // XOR-compressed doubles
+
+    private static void writeValues(BitWriter out, double[] values, int count) {
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            if (xor == 0) {
+                out.writeBit(false);
+            } else {
+                out.writeBit(true);
+                int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                    // Meaningful bits fit in the previous window
+                    out.writeBit(false);
+                    out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                } else {
+                    int significant = 64 - leading - trailing;
+                    out.writeBit(true);
+                    out.writeBits(leading, 5);
+                    out.writeBits(significant - 1, 6);
+                    out.writeBits(xor >>> trailing, significant);
+                    previousLeading = leading;
+                    previousTrailing = trailing;
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    private static void readValues(BitReader in, double[] values, int count) {
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int significant = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                previous ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    /**
+     * Collects snapshots for a new chunk, or for an open chunk being extended
+     */
+    public static final class Builder {
+
+        private long[] seconds = new long[16];
+        private double[][] columns = new double[CurrencyCodes.count()][];
+        private int size;
+
+        public Builder() {
+        }
+
+        /**
+         * Start from every point of an existing chunk
+         */
+        public static Builder from(HistoryChunk chunk) {
+            Builder builder = new Builder();
+            long[] times = chunk.getTimestamps();
+            builder.seconds = new long[Math.max(16, times.length * 2)];
+            for (int i = 0; i < times.length; i++) {
+                builder.seconds[i] = times[i] / 1000;
+            }
+            builder.size = times.length;
+            for (int ordinal : chunk.ordinals) {
+                double[] column = Arrays.copyOf(chunk.getColumn(ordinal), builder.seconds.length);
+                Arrays.fill(column, times.length, column.length, Double.NaN);
+                builder.columnFor(ordinal, false);
+                builder.columns[ordinal] = column;
+            }
+            return builder;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long getStartTime() {
+            return seconds[0] * 1000;
+        }
+
+        public long getEndTime() {
+            return seconds[size - 1] * 1000;
+        }
+
+        /**
+         * Add a snapshot taken at {@code time} (milliseconds)
+         * A snapshot in the same second as the last point replaces it.
+         *
+         * @throws IllegalArgumentException if {@code time} is before the last point
+         */
+        public Builder append(RateTable rates, long time) {
+            long second = Math.floorDiv(time, 1000);
+            int index = size;
+            if (size > 0) {
+                long last = seconds[size - 1];
+                if (second < last) {
+                    throw new IllegalArgumentException("History is append-only");
+                }
+                if (second == last) {
+                    index = size - 1;
+                }
+            }
+            if (index == size) {
+                ensurePoints(size + 1);
+                size++;
+            }
+            seconds[index] = second;
+
+            for (int ordinal = 0; ordinal < columns.length; ordinal++) {
+                if (columns[ordinal] != null) {
+                    columns[ordinal][index] = rates.getRate(ordinal);
+                }
+            }
+            int pointIndex = index;
+            rates.forEach((ordinal, rate) -> columnFor(ordinal, true)[pointIndex] = rate);
+            return this;
+        }
+
+        public byte[] encode() {
+            if (size == 0) {
+                throw new IllegalStateException("Empty history chunk");
+            }
+
+            int currencyCount = 0;
+            int[] ordinals = new int[columns.length];
+            for (int ordinal = 0; ordinal < columns.length; ordinal++) {
+                if (columns[ordinal] != null && CurrencyCodes.codeOf(ordinal).length() == CODE_LENGTH) {
+                    ordinals[currencyCount++] = ordinal;
+                }
+            }
+
+            BitWriter timestampColumn = new BitWriter(8 + size);
+            writeTimestamps(timestampColumn, seconds, size);
+
+            byte[][] valueColumns = new byte[currencyCount][];
+            int bodyBytes = timestampColumn.byteLength();
+            for (int i = 0; i < currencyCount; i++) {
+                BitWriter column = new BitWriter(8 + size);
+                writeValues(column, columns[ordinals[i]], size);
+                valueColumns[i] = column.toByteArray();
+                bodyBytes += valueColumns[i].length;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(
+                    12 + currencyCount * CODE_LENGTH + 4 + currencyCount * 4 + bodyBytes);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putInt(size);
+            buffer.putInt(currencyCount);
+            for (int i = 0; i < currencyCount; i++) {
+                buffer.put(CurrencyCodes.codeOf(ordinals[i]).getBytes(StandardCharsets.US_ASCII));
+            }
+            buffer.putInt(timestampColumn.byteLength());
+            for (int i = 0; i < currencyCount; i++) {
+                buffer.putInt(valueColumns[i].length);
+            }
+            buffer.put(timestampColumn.toByteArray());
+            for (byte[] column : valueColumns) {
+                buffer.put(column);
+            }
+            return buffer.array();
+        }
+
+        private double[] columnFor(int ordinal, boolean create) {
+            if (ordinal >= columns.length) {
+                columns = Arrays.copyOf(columns, Math.max(ordinal + 1, CurrencyCodes.count()));
+            }
+            if (create && columns[ordinal] == null) {
+                // Earlier points did not have this currency
+                double[] column = new double[seconds.length];
+                Arrays.fill(column, Double.NaN);
+                columns[ordinal] = column;
+            }
+            return columns[ordinal];
+        }
+
+        private void ensurePoints(int points) {
+            if (points <= seconds.length) {
+                return;
+            }
+            int oldLength = seconds.length;
+            int newLength = Math.max(points, oldLength * 2);
+            seconds = Arrays.copyOf(seconds, newLength);
+            for (int ordinal = 0; ordinal < columns.length; ordinal++) {
+                if (columns[ordinal] != null) {
+                    columns[ordinal] = Arrays.copyOf(columns[ordinal], newLength);
+                    Arrays.fill(columns[ordinal], oldLength, newLength, Double.NaN);
+                }
+            }
+        }
+    }
+}
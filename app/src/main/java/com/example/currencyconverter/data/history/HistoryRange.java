@@ -0,0 +1,27 @@
+package com.example.currencyconverter.data.history;
+
+/**
+ * Chart ranges ending now
+ */
+public enum HistoryRange {
+    WEEK(7),
+    MONTH(30),
+    YEAR(365),
+    FIVE_YEARS(5 * 365),
+    ALL(0);
+
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    private final int days;
+
+    HistoryRange(int days) {
+        this.days = days;
+    }
+
+    /**
+     * First point time included when the range ends at {@code now}
+     */
+    public long startFrom(long now) {
+        return days > 0 ? now - days * DAY_MS : Long.MIN_VALUE;
+    }
+}
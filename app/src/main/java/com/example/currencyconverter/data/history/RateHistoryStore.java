@@ -0,0 +1,151 @@
+package com.example.currencyconverter.data.history;
+
+import com.example.currencyconverter.data.local.dao.RateHistoryDao;
+import com.example.currencyconverter.data.local.entity.RateHistoryChunk;
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only exchange rate history per base, kept as {@link HistoryChunk} rows in Room
+ *
+ * Snapshots are appended to the newest ("open") chunk of their base until it
+ * holds {@link #MAX_POINTS_PER_CHUNK} points, then a new chunk is started.
+ * Lookups pick chunks through the (baseCurrency, startTime) key and binary
+ * search the decoded timestamps; only the columns of the requested pair are
+ * decoded. All methods hit the database and must run on a background thread.
+ */
+public final class RateHistoryStore {
+
+    // About 10 days of hourly points or 8 months of daily ones
+    public static final int MAX_POINTS_PER_CHUNK = 256;
+
+    private final RateHistoryDao dao;
+
+    // Bumped on every append so derived results (e.g. downsampled charts) can tell they are stale
+    private volatile long modificationCount;
+
+    public RateHistoryStore(RateHistoryDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Append a snapshot at its provider time (fetch time if the provider gave none)
+     *
+     * @return false if the snapshot is older than the newest stored point and was dropped
+     */
+    public synchronized boolean append(RateTable rates) {
+        String baseCurrency = rates.getBaseCurrency();
+        long time = rates.getProviderTimestamp() > 0 ? rates.getProviderTimestamp() : rates.getTimestamp();
+
+        RateHistoryChunk latest = dao.getLatestChunk(baseCurrency);
+        HistoryChunk.Builder builder = null;
+        if (latest != null) {
+            if (time < latest.getEndTime()) {
+                return false;
+            }
+            if (latest.getPointCount() < MAX_POINTS_PER_CHUNK) {
+                try {
+                    builder = HistoryChunk.Builder.from(HistoryChunk.wrap(latest.getData()));
+                } catch (IllegalArgumentException e) {
+                    android.util.Log.e("RateHistoryStore", "Sealing unreadable history chunk", e);
+                }
+            }
+        }
+        if (builder == null) {
+            builder = new HistoryChunk.Builder();
+        }
+
+        builder.append(rates, time);
+        dao.upsert(new RateHistoryChunk(baseCurrency, builder.getStartTime(), builder.getEndTime(),
+                builder.size(), builder.encode()));
+        modificationCount++;
+        return true;
+    }
+
+    /**
+     * Rates of {@code from} to {@code to} over [start, end], derived from the history of {@code base}
+     * Points where either currency is missing are skipped.
+     */
+    public RateSeries getSeries(String base, String from, String to, long start, long end) {
+        int fromOrdinal = CurrencyCodes.ordinalOf(from);
+        int toOrdinal = CurrencyCodes.ordinalOf(to);
+        long[] times = new long[0];
+        double[] values = new double[0];
+        int size = 0;
+        if (fromOrdinal == CurrencyCodes.UNKNOWN || toOrdinal == CurrencyCodes.UNKNOWN) {
+            return new RateSeries(times, values, 0);
+        }
+
+        List<RateHistoryChunk> rows = dao.getChunksInRange(base, start, end);
+        for (RateHistoryChunk row : rows) {
+            HistoryChunk chunk = wrap(row);
+            if (chunk == null) {
+                continue;
+            }
+            long[] chunkTimes = chunk.getTimestamps();
+            double[] fromRates = chunk.getColumn(fromOrdinal);
+            double[] toRates = chunk.getColumn(toOrdinal);
+
+            int first = chunk.indexFrom(start);
+            int last = chunk.indexAt(end);
+            if (size + (last - first + 1) > times.length) {
+                int capacity = Math.max(times.length * 2, size + last - first + 1);
+                times = Arrays.copyOf(times, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            for (int i = first; i <= last; i++) {
+                double rate = toRates[i] / fromRates[i];
+                if (!Double.isNaN(rate)) {
+                    times[size] = chunkTimes[i];
+                    values[size] = rate;
+                    size++;
+                }
+            }
+        }
+        return new RateSeries(times, values, size);
+    }
+
+    /**
+     * Rate of {@code from} to {@code to} as of {@code time}: the last point at or before it
+     *
+     * @return The rate, or NaN if there is no history that early or a currency is missing
+     */
+    public double getRateAt(String base, String from, String to, long time) {
+        HistoryChunk chunk = wrap(dao.getChunkAt(base, time));
+        if (chunk == null) {
+            return Double.NaN;
+        }
+        int index = chunk.indexAt(time);
+        if (index < 0) {
+            return Double.NaN;
+        }
+        return chunk.getColumn(CurrencyCodes.ordinalOf(to))[index]
+                / chunk.getColumn(CurrencyCodes.ordinalOf(from))[index];
+    }
+
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Total size of the compressed history in bytes
+     */
+    public long getStoredBytes() {
+        return dao.getStoredBytes();
+    }
+
+    private static HistoryChunk wrap(RateHistoryChunk row) {
+        if (row == null) {
+            return null;
+        }
+        try {
+            return HistoryChunk.wrap(row.getData());
+        } catch (IllegalArgumentException e) {
+            android.util.Log.e("RateHistoryStore", "Skipping unreadable history chunk", e);
+            return null;
+        }
+    }
+}
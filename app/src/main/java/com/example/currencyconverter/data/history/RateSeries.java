@@ -0,0 +1,40 @@
+package com.example.currencyconverter.data.history;
+
+/**
+ * Time series of one currency pair read from rate history
+ * Parallel primitive arrays, ascending by time.
+ */
+public final class RateSeries {
+
+    private final long[] times;
+    private final double[] rates;
+    private final int size;
+
+    /**
+     * Wraps the arrays without copying; only the first {@code size} entries are used
+     */
+    RateSeries(long[] times, double[] rates, int size) {
+        this.times = times;
+        this.rates = rates;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Point time in milliseconds
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    public double getRate(int index) {
+        return rates[index];
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.currencyconverter.data.ledger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 record reader
+ *
+ * Reads one record at a time through a fixed char buffer, handling quoted
+ * fields with embedded commas, quotes and line breaks. The raw text of the
+ * current record is kept so it can be copied to the output unchanged.
+ * Buffers are reused across records.
+ */
+final class CsvReader {
+
+    private final Reader reader;
+    private final char[] buffer = new char[16 * 1024];
+    private int position;
+    private int limit;
+
+    private final StringBuilder raw = new StringBuilder(256);
+    private final StringBuilder field = new StringBuilder(64);
+    private String[] fields = new String[16];
+    private int fieldCount;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Advance to the next record
+     *
+     * @return false at end of input
+     */
+    boolean next() throws IOException {
+        raw.setLength(0);
+        field.setLength(0);
+        fieldCount = 0;
+
+        boolean inQuotes = false;
+        boolean sawAny = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (!sawAny) {
+                    return false;
+                }
+                endField();
+                return true;
+            }
+            char c = buffer[position++];
+            sawAny = true;
+
+            if (inQuotes) {
+                raw.append(c);
+                if (c == '"') {
+                    if (position == limit) {
+                        fill();
+                    }
+                    if (position < limit && buffer[position] == '"') {
+                        // Escaped quote
+                        raw.append('"');
+                        field.append('"');
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '\n') {
+                endField();
+                return true;
+            } else if (c == '\r') {
+                if (position == limit) {
+                    fill();
+                }
+                if (position < limit && buffer[position] == '\n') {
+                    position++;
+                }
+                endField();
+                return true;
+            } else {
+                raw.append(c);
+                if (c == ',') {
+                    endField();
+                } else if (c == '"' && field.length() == 0) {
+                    inQuotes = true;
+                } else {
+                    field.append(c);
+                }
+            }
+        }
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return The unquoted field, or null if the record has fewer fields
+     */
+    String getField(int index) {
+        return index < fieldCount ? fields[index] : null;
+    }
+
+    /**
+     * The current record exactly as read, without its line terminator
+     */
+    CharSequence getRaw() {
+        return raw;
+    }
+
+    private void endField() {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fieldCount * 2);
+        }
+        fields[fieldCount++] = field.toString();
+        field.setLength(0);
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.currencyconverter.data.ledger;
+
+import com.example.currencyconverter.data.money.CurrencyUnits;
+import com.example.currencyconverter.data.money.Money;
+import com.example.currencyconverter.data.rates.BatchConverter;
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a transaction ledger CSV into a converted copy
+ *
+ * Pipeline, one chunk of {@link #CHUNK_ROWS} rows at a time:
+ * 1. Parse rows into primitive arrays (amount, source currency ordinal)
+ * 2. Convert the whole chunk with one {@link BatchConverter} call
+ * 3. Write each input row unchanged plus the converted amount, rounded to
+ *    the target currency's minor units, and the target currency
+ * 4. Report a checkpoint (input rows consumed, output bytes, running total)
+ *
+ * Memory is bounded by the chunk size whatever the file size. The input must
+ * have a header row with {@code amount} and {@code currency} columns (any
+ * case, any position). Rows whose amount or currency cannot be read, or
+ * whose converted amount does not fit in minor units, keep an empty
+ * converted amount and are counted as failed.
+ *
+ * The running total is an exact fixed-point sum of the written amounts.
+ * A run can resume from a checkpoint: the caller truncates the output to the
+ * checkpoint's byte count, and the converter skips the rows already done.
+ */
+public final class LedgerConverter {
+
+    public static final int CHUNK_ROWS = 4096;
+
+    public static final String AMOUNT_COLUMN = "amount";
+    public static final String CURRENCY_COLUMN = "currency";
+
+    /**
+     * Called after every chunk has been written and flushed
+     */
+    public interface Checkpoint {
+        void onChunkWritten(long rowsDone, long outputBytes, long totalMinor) throws IOException;
+    }
+
+    public static final class Result {
+        public final long rows;
+        public final long failedRows;
+        public final long outputBytes;
+        // Sum of all converted amounts in minor units of the target currency
+        public final long totalMinor;
+        public final long elapsedMs;
+
+        Result(long rows, long failedRows, long outputBytes, long totalMinor, long elapsedMs) {
+            this.rows = rows;
+            this.failedRows = failedRows;
+            this.outputBytes = outputBytes;
+            this.totalMinor = totalMinor;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public long getRowsPerSecond() {
+            return elapsedMs > 0 ? rows * 1000 / elapsedMs : rows;
+        }
+    }
+
+    private final BatchConverter converter;
+    private final String targetCurrency;
+    private final int targetOrdinal;
+    private final int targetDigits;
+    private long totalMinor;
+
+    // Chunk buffers, reused for every chunk
+    private final double[] amounts = new double[CHUNK_ROWS];
+    private final int[] fromOrdinals = new int[CHUNK_ROWS];
+    private final int[] toOrdinals = new int[CHUNK_ROWS];
+    private final double[] results = new double[CHUNK_ROWS];
+    private final StringBuilder rows = new StringBuilder(CHUNK_ROWS * 64);
+    private final int[] rowEnds = new int[CHUNK_ROWS];
+    private final StringBuilder out = new StringBuilder(CHUNK_ROWS * 96);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+
+    public LedgerConverter(BatchConverter converter, String targetCurrency) {
+        this.converter = converter;
+        this.targetCurrency = targetCurrency;
+        this.targetOrdinal = CurrencyCodes.ordinalOf(targetCurrency);
+        this.targetDigits = CurrencyUnits.digits(targetCurrency);
+    }
+
+    /**
+     * @param skipRows    Data rows already converted by an earlier run (0 for a fresh run)
+     * @param outputBytes Bytes already in {@code output} from that run
+     * @param totalMinor  Running total reported by that run's checkpoint
+     */
+    public Result convert(Reader input, OutputStream output, long skipRows, long outputBytes, long totalMinor,
+            Checkpoint checkpoint) throws IOException {
+        long start = System.nanoTime();
+        this.totalMinor = totalMinor;
+        CsvReader csv = new CsvReader(input);
+        if (!csv.next()) {
+            throw new IOException("Empty ledger");
+        }
+
+        int amountColumn = -1;
+        int currencyColumn = -1;
+        for (int i = 0; i < csv.getFieldCount(); i++) {
+            String name = csv.getField(i).trim();
+            if (name.equalsIgnoreCase(AMOUNT_COLUMN)) {
+                amountColumn = i;
+            } else if (name.equalsIgnoreCase(CURRENCY_COLUMN)) {
+                currencyColumn = i;
+            }
+        }
+        if (amountColumn < 0 || currencyColumn < 0) {
+            throw new IOException("Ledger needs '" + AMOUNT_COLUMN + "' and '" + CURRENCY_COLUMN + "' columns");
+        }
+
+        long written = outputBytes;
+        if (skipRows == 0) {
+            out.setLength(0);
+            out.append(csv.getRaw()).append(",converted_amount,converted_currency\n");
+            written += write(output);
+        }
+
+        long rowsDone = 0;
+        while (rowsDone < skipRows && csv.next()) {
+            rowsDone++;
+        }
+
+        long failed = 0;
+        boolean more = true;
+        while (more) {
+            // 1. Parse a chunk
+            rows.setLength(0);
+            int count = 0;
+            long consumed = 0;
+            while (count < CHUNK_ROWS && (more = csv.next())) {
+                consumed++;
+                if (csv.getRaw().length() == 0) {
+                    continue;
+                }
+                amounts[count] = parseAmount(csv.getField(amountColumn));
+                String currency = csv.getField(currencyColumn);
+                fromOrdinals[count] = currency != null
+                        ? CurrencyCodes.ordinalOf(currency.trim()) : CurrencyCodes.UNKNOWN;
+                toOrdinals[count] = targetOrdinal;
+                rows.append(csv.getRaw());
+                rowEnds[count] = rows.length();
+                count++;
+            }
+            if (consumed == 0) {
+                break;
+            }
+
+            // 2. Convert the chunk in one tight loop
+            converter.convert(amounts, fromOrdinals, toOrdinals, count, results);
+
+            // 3. Copy each row and append its result
+            out.setLength(0);
+            int rowStart = 0;
+            for (int i = 0; i < count; i++) {
+                out.append(rows, rowStart, rowEnds[i]);
+                if (!appendSuffix(results[i])) {
+                    failed++;
+                }
+                rowStart = rowEnds[i];
+            }
+            written += write(output);
+            output.flush();
+
+            // 4. Checkpoint
+            rowsDone += consumed;
+            if (checkpoint != null) {
+                checkpoint.onChunkWritten(rowsDone, written, this.totalMinor);
+            }
+        }
+
+        return new Result(rowsDone, failed, written, this.totalMinor, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static double parseAmount(String field) {
+        if (field == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(field.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Append the converted amount and target currency to the pending row
+     *
+     * @return False if the amount was left empty: no rate, or a result or
+     * running total past the range of minor units
+     */
+    private boolean appendSuffix(double value) {
+        out.append(',');
+        boolean converted = false;
+        if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+            try {
+                long minor = Money.fromDouble(value, targetDigits, Money.DEFAULT_ROUNDING);
+                totalMinor = Math.addExact(totalMinor, minor);
+                Money.format(out, minor, targetDigits);
+                converted = true;
+            } catch (ArithmeticException e) {
+                // Same as an unreadable row; the total is left as it was
+            }
+        }
+        out.append(',').append(targetCurrency).append('\n');
+        return converted;
+    }
+
+    /**
+     * Encode the pending output as UTF-8 and write it
+     *
+     * @return Bytes written
+     */
+    private long write(OutputStream output) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(out);
+        long total = 0;
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                while (encoder.flush(bytes).isOverflow()) {
+                    total += drain(output);
+                }
+                return total + drain(output);
+            }
+            total += drain(output);
+        }
+    }
+
+    private int drain(OutputStream output) throws IOException {
+        int length = bytes.position();
+        output.write(bytes.array(), 0, length);
+        bytes.clear();
+        return length;
+    }
+}
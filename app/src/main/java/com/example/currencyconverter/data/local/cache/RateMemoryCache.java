@@ -0,0 +1,142 @@
+package com.example.currencyconverter.data.local.cache;
+
+import android.content.ComponentCallbacks2;
+
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide in-memory (L1) cache of decoded rate snapshots
+ * Sits in front of Room so repeat conversions never touch disk.
+ *
+ * - Keyed by snapshot base currency
+ * - Per-entry TTL measured from the snapshot timestamp
+ * - Bounded size with least-recently-used eviction
+ * - Hit / miss / eviction counters
+ * - Cleared or trimmed on memory pressure
+ */
+public final class RateMemoryCache {
+
+    private static final int MAX_ENTRIES = 8;
+
+    private static RateMemoryCache instance;
+
+    private final int maxEntries;
+    private final long ttlMs;
+
+    // Access-ordered so iteration starts from the least recently used entry
+    private final LinkedHashMap<String, CrossRateEngine> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    RateMemoryCache(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * @param ttlMs Entry lifetime; only applied when the singleton is first created
+     */
+    public static synchronized RateMemoryCache getInstance(long ttlMs) {
+        if (instance == null) {
+            instance = new RateMemoryCache(MAX_ENTRIES, ttlMs);
+        }
+        return instance;
+    }
+
+    /**
+     * @return The singleton, or null if no repository has created it yet
+     */
+    public static synchronized RateMemoryCache peekInstance() {
+        return instance;
+    }
+
+    /**
+     * @return A snapshot younger than the TTL, or null
+     */
+    public synchronized CrossRateEngine get(String baseCurrency) {
+        CrossRateEngine engine = entries.get(baseCurrency);
+        if (engine == null) {
+            missCount++;
+            return null;
+        }
+        if (System.currentTimeMillis() - engine.getTimestamp() >= ttlMs) {
+            entries.remove(baseCurrency);
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return engine;
+    }
+
+    /**
+     * Store a snapshot unless a newer one for the same base is already cached
+     */
+    public synchronized void put(String baseCurrency, CrossRateEngine engine) {
+        CrossRateEngine current = entries.get(baseCurrency);
+        if (current != null && current.getTimestamp() > engine.getTimestamp()) {
+            return;
+        }
+        entries.put(baseCurrency, engine);
+        trimToSize(maxEntries);
+    }
+
+    public synchronized void invalidate(String baseCurrency) {
+        entries.remove(baseCurrency);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Release memory in response to {@link ComponentCallbacks2#onTrimMemory(int)}
+     */
+    @SuppressWarnings("deprecation")
+    public synchronized void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            evictionCount += entries.size();
+            entries.clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(entries.size() / 2);
+        }
+    }
+
+    private void trimToSize(int size) {
+        Iterator<Map.Entry<String, CrossRateEngine>> iterator = entries.entrySet().iterator();
+        while (entries.size() > size && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RateMemoryCache[size=" + entries.size() + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+    }
+}
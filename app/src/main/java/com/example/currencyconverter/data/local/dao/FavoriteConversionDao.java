@@ -1,6 +1,5 @@
 package com.example.currencyconverter.data.local.dao;
 
-import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -13,6 +12,12 @@ import java.util.List;
 /**
  * Data Access Object for FavoriteConversion
  * 2nd Semester - Room Database Implementation
+ *
+ * The list is read a page at a time by keyset on (timestamp, id), newest
+ * first, so each page is a range scan of the (timestamp, id) index no matter
+ * how deep it is. Row-value comparisons need a newer SQLite than minSdk
+ * ships, so the keyset is spelled as a timestamp range (which bounds the
+ * index scan) plus an id tie-break.
  */
 @Dao
 public interface FavoriteConversionDao {
@@ -23,8 +28,61 @@ public interface FavoriteConversionDao {
     @Delete
     void delete(FavoriteConversion favoriteConversion);
 
-    @Query("SELECT * FROM favorite_conversions ORDER BY timestamp DESC")
-    LiveData<List<FavoriteConversion>> getAllFavorites();
+    /**
+     * Bulk insert; one statement compiled and reused for every row
+     *
+     * @return Generated row ids, in the order of the list
+     */
+    @Insert
+    List<Long> insertAll(List<FavoriteConversion> favoriteConversions);
+
+    @Delete
+    void deleteAll(List<FavoriteConversion> favoriteConversions);
+
+    /**
+     * Bulk delete by id; keep each call under SQLite's 999 bound variables
+     */
+    @Query("DELETE FROM favorite_conversions WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+
+    @Query("DELETE FROM favorite_conversions")
+    void clear();
+
+    /**
+     * First page: the newest favorites
+     */
+    @Query("SELECT * FROM favorite_conversions ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<FavoriteConversion> getNewest(int limit);
+
+    /**
+     * Page starting at a key, inclusive, newest first
+     */
+    @Query("SELECT * FROM favorite_conversions "
+            + "WHERE timestamp <= :timestamp AND (timestamp < :timestamp OR id <= :id) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<FavoriteConversion> getFrom(long timestamp, int id, int limit);
+
+    /**
+     * Page below a key: strictly older, newest first
+     */
+    @Query("SELECT * FROM favorite_conversions "
+            + "WHERE timestamp <= :timestamp AND (timestamp < :timestamp OR id < :id) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<FavoriteConversion> getOlderThan(long timestamp, int id, int limit);
+
+    /**
+     * Page above a key: strictly newer, OLDEST first (nearest to the key); callers reverse it
+     */
+    @Query("SELECT * FROM favorite_conversions "
+            + "WHERE timestamp >= :timestamp AND (timestamp > :timestamp OR id > :id) "
+            + "ORDER BY timestamp ASC, id ASC LIMIT :limit")
+    List<FavoriteConversion> getNewerThan(long timestamp, int id, int limit);
+
+    /**
+     * Every favorite, unordered; read once off the main thread to build the revaluation index
+     */
+    @Query("SELECT * FROM favorite_conversions")
+    List<FavoriteConversion> getAll();
 
     @Query("DELETE FROM favorite_conversions WHERE id = :id")
     void deleteById(int id);
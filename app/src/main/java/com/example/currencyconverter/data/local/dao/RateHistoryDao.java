@@ -0,0 +1,48 @@
+package com.example.currencyconverter.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Upsert;
+
+import com.example.currencyconverter.data.local.entity.RateHistoryChunk;
+
+import java.util.List;
+
+/**
+ * DAO for compressed exchange rate history chunks
+ */
+@Dao
+public interface RateHistoryDao {
+
+    @Upsert
+    void upsert(RateHistoryChunk chunk);
+
+    /**
+     * The open chunk new snapshots are appended to
+     */
+    @Query("SELECT * FROM rate_history_chunks WHERE baseCurrency = :base ORDER BY startTime DESC LIMIT 1")
+    RateHistoryChunk getLatestChunk(String base);
+
+    /**
+     * Chunks overlapping [from, to], oldest first
+     */
+    @Query("SELECT * FROM rate_history_chunks WHERE baseCurrency = :base "
+            + "AND startTime <= :to AND endTime >= :from ORDER BY startTime")
+    List<RateHistoryChunk> getChunksInRange(String base, long from, long to);
+
+    /**
+     * The chunk holding the last point at or before {@code time}
+     */
+    @Query("SELECT * FROM rate_history_chunks WHERE baseCurrency = :base AND startTime <= :time "
+            + "ORDER BY startTime DESC LIMIT 1")
+    RateHistoryChunk getChunkAt(String base, long time);
+
+    @Query("SELECT COALESCE(SUM(LENGTH(data)), 0) FROM rate_history_chunks")
+    long getStoredBytes();
+
+    @Query("DELETE FROM rate_history_chunks WHERE endTime < :before")
+    void deleteChunksBefore(long before);
+
+    @Query("DELETE FROM rate_history_chunks")
+    void deleteAll();
+}
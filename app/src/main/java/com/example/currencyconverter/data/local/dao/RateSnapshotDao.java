@@ -0,0 +1,49 @@
+package com.example.currencyconverter.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
+
+import com.example.currencyconverter.data.local.entity.RateSnapshot;
+
+/**
+ * DAO for packed exchange rate snapshots
+ * Supports offline-first functionality
+ */
+@Dao
+public interface RateSnapshotDao {
+
+    @Upsert
+    void upsert(RateSnapshot snapshot);
+
+    /**
+     * Store a snapshot with the next generation number for its base
+     *
+     * @return The generation assigned to the snapshot
+     */
+    @Transaction
+    default long writeSnapshot(RateSnapshot snapshot) {
+        Long current = getGeneration(snapshot.getBaseCurrency());
+        long generation = current != null ? current + 1 : 1;
+        snapshot.setGeneration(generation);
+        upsert(snapshot);
+        return generation;
+    }
+
+    @Query("SELECT * FROM rate_snapshots WHERE baseCurrency = :base")
+    RateSnapshot getSnapshot(String base);
+
+    /**
+     * Mark a snapshot as revalidated without rewriting its rates
+     */
+    @Query("UPDATE rate_snapshots SET timestamp = :timestamp, providerTimestamp = :providerTimestamp"
+            + " WHERE baseCurrency = :base")
+    void touch(String base, long timestamp, long providerTimestamp);
+
+    @Query("SELECT generation FROM rate_snapshots WHERE baseCurrency = :base")
+    Long getGeneration(String base);
+
+    @Query("DELETE FROM rate_snapshots")
+    void deleteAll();
+}
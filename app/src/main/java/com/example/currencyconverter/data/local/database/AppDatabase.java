@@ -6,23 +6,28 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 
-import com.example.currencyconverter.data.local.dao.CachedRateDao;
 import com.example.currencyconverter.data.local.dao.FavoriteConversionDao;
-import com.example.currencyconverter.data.local.entity.CachedExchangeRate;
+import com.example.currencyconverter.data.local.dao.RateHistoryDao;
+import com.example.currencyconverter.data.local.dao.RateSnapshotDao;
 import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.local.entity.RateHistoryChunk;
+import com.example.currencyconverter.data.local.entity.RateSnapshot;
 
 /**
  * Room Database singleton
  * 2nd Semester - Room Database Implementation + Offline Caching
  */
-@Database(entities = { FavoriteConversion.class, CachedExchangeRate.class }, version = 2, exportSchema = false)
+@Database(entities = { FavoriteConversion.class, RateSnapshot.class, RateHistoryChunk.class }, version = 7,
+        exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
 
     private static AppDatabase instance;
 
     public abstract FavoriteConversionDao favoriteConversionDao();
 
-    public abstract CachedRateDao cachedRateDao();
+    public abstract RateSnapshotDao rateSnapshotDao();
+
+    public abstract RateHistoryDao rateHistoryDao();
 
     public static synchronized AppDatabase getInstance(Context context) {
         if (instance == null) {
@@ -30,7 +35,9 @@ public abstract class AppDatabase extends RoomDatabase {
                     context.getApplicationContext(),
                     AppDatabase.class,
                     "currency_converter_database")
-                    .fallbackToDestructiveMigration()
+                    .addMigrations(DatabaseMigrations.ALL)
+                    // Version 1 predates exported schemas and cannot be migrated in place
+                    .fallbackToDestructiveMigrationFrom(1)
                     .build();
         }
         return instance;
@@ -0,0 +1,184 @@
+package com.example.currencyconverter.data.local.database;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.currencyconverter.data.history.HistoryChunk;
+import com.example.currencyconverter.data.money.CurrencyUnits;
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.rates.RateTableCodec;
+
+/**
+ * Room schema migrations for {@link AppDatabase}
+ *
+ * Version history:
+ * 1 - favorite_conversions (schema never exported, rebuilt destructively)
+ * 2 - cached_rates with auto-generated id (one row appended per rate per refresh)
+ * 3 - cached_rates keyed on (baseCurrency, targetCurrency), indexed on timestamp
+ * 4 - rate_snapshots: one packed row per base replaces cached_rates
+ * 5 - rate_history_chunks: append-only compressed rate history
+ * 6 - favorite_conversions amounts stored as fixed-point minor units
+ * 7 - favorite_conversions indexed on (timestamp, id) for keyset paging
+ */
+public final class DatabaseMigrations {
+
+    private DatabaseMigrations() {
+    }
+
+    /**
+     * Collapse the append-only cached_rates table to the newest row per pair
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `cached_rates_new` ("
+                    + "`baseCurrency` TEXT NOT NULL, "
+                    + "`targetCurrency` TEXT NOT NULL, "
+                    + "`rate` REAL NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`baseCurrency`, `targetCurrency`))");
+            // SQLite returns the row holding MAX(timestamp) for the bare columns
+            db.execSQL("INSERT OR REPLACE INTO `cached_rates_new` "
+                    + "(`baseCurrency`, `targetCurrency`, `rate`, `timestamp`) "
+                    + "SELECT `baseCurrency`, `targetCurrency`, `rate`, MAX(`timestamp`) FROM `cached_rates` "
+                    + "WHERE `baseCurrency` IS NOT NULL AND `targetCurrency` IS NOT NULL "
+                    + "GROUP BY `baseCurrency`, `targetCurrency`");
+            db.execSQL("DROP TABLE `cached_rates`");
+            db.execSQL("ALTER TABLE `cached_rates_new` RENAME TO `cached_rates`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_cached_rates_timestamp` ON `cached_rates` (`timestamp`)");
+        }
+    };
+
+    /**
+     * Pack each base's cached_rates rows into a single rate_snapshots row
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `rate_snapshots` ("
+                    + "`baseCurrency` TEXT NOT NULL, "
+                    + "`rates` BLOB NOT NULL, "
+                    + "`currencySetVersion` INTEGER NOT NULL, "
+                    + "`providerTimestamp` INTEGER NOT NULL, "
+                    + "`generation` INTEGER NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`baseCurrency`))");
+
+            try (Cursor cursor = db.query("SELECT `baseCurrency`, `targetCurrency`, `rate`, `timestamp` "
+                    + "FROM `cached_rates` ORDER BY `baseCurrency`")) {
+                String base = null;
+                RateTable.Builder builder = null;
+                long timestamp = 0;
+                while (cursor.moveToNext()) {
+                    String rowBase = cursor.getString(0);
+                    if (!rowBase.equals(base)) {
+                        insertSnapshot(db, base, builder, timestamp);
+                        base = rowBase;
+                        builder = new RateTable.Builder(base);
+                        timestamp = 0;
+                    }
+                    builder.put(cursor.getString(1), cursor.getDouble(2));
+                    timestamp = Math.max(timestamp, cursor.getLong(3));
+                }
+                insertSnapshot(db, base, builder, timestamp);
+            }
+
+            db.execSQL("DROP TABLE `cached_rates`");
+        }
+
+        private void insertSnapshot(SupportSQLiteDatabase db, String base, RateTable.Builder builder,
+                long timestamp) {
+            if (base == null) {
+                return;
+            }
+            RateTable table = builder.build(timestamp);
+            db.execSQL("INSERT OR REPLACE INTO `rate_snapshots` (`baseCurrency`, `rates`, "
+                    + "`currencySetVersion`, `providerTimestamp`, `generation`, `timestamp`) "
+                    + "VALUES (?, ?, ?, 0, 1, ?)",
+                    new Object[] { base, RateTableCodec.encode(table),
+                            RateTableCodec.currencySetVersion(table), timestamp });
+        }
+    };
+
+    /**
+     * Add the history table and seed it with the current snapshots
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `rate_history_chunks` ("
+                    + "`baseCurrency` TEXT NOT NULL, "
+                    + "`startTime` INTEGER NOT NULL, "
+                    + "`endTime` INTEGER NOT NULL, "
+                    + "`pointCount` INTEGER NOT NULL, "
+                    + "`data` BLOB NOT NULL, "
+                    + "PRIMARY KEY(`baseCurrency`, `startTime`))");
+
+            try (Cursor cursor = db.query("SELECT `baseCurrency`, `rates`, `timestamp`, `providerTimestamp` "
+                    + "FROM `rate_snapshots`")) {
+                while (cursor.moveToNext()) {
+                    RateTable table;
+                    try {
+                        table = RateTableCodec.decode(cursor.getBlob(1), cursor.getString(0),
+                                cursor.getLong(2), cursor.getLong(3));
+                    } catch (RuntimeException e) {
+                        continue;
+                    }
+                    long time = table.getProviderTimestamp() > 0 ? table.getProviderTimestamp() : table.getTimestamp();
+                    HistoryChunk.Builder builder = new HistoryChunk.Builder().append(table, time);
+                    db.execSQL("INSERT OR REPLACE INTO `rate_history_chunks` (`baseCurrency`, `startTime`, "
+                            + "`endTime`, `pointCount`, `data`) VALUES (?, ?, ?, 1, ?)",
+                            new Object[] { table.getBaseCurrency(), builder.getStartTime(),
+                                    builder.getEndTime(), builder.encode() });
+                }
+            }
+        }
+    };
+
+    /**
+     * Replace the double amount/result columns with minor units of each row's currency
+     * SQLite's ROUND is half away from zero, which is fine for already-displayed values.
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `favorite_conversions_new` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`fromCurrency` TEXT, "
+                    + "`toCurrency` TEXT, "
+                    + "`amountMinor` INTEGER NOT NULL, "
+                    + "`resultMinor` INTEGER NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL)");
+            db.execSQL("INSERT INTO `favorite_conversions_new` "
+                    + "(`id`, `fromCurrency`, `toCurrency`, `amountMinor`, `resultMinor`, `timestamp`) "
+                    + "SELECT `id`, `fromCurrency`, `toCurrency`, "
+                    + "CAST(ROUND(`amount` * (" + CurrencyUnits.sqlScale("fromCurrency") + ")) AS INTEGER), "
+                    + "CAST(ROUND(`result` * (" + CurrencyUnits.sqlScale("toCurrency") + ")) AS INTEGER), "
+                    + "`timestamp` FROM `favorite_conversions`");
+            db.execSQL("DROP TABLE `favorite_conversions`");
+            db.execSQL("ALTER TABLE `favorite_conversions_new` RENAME TO `favorite_conversions`");
+        }
+    };
+
+    /**
+     * Index the favorites keyset so every page is an index range scan
+     */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorite_conversions_timestamp_id` "
+                    + "ON `favorite_conversions` (`timestamp`, `id`)");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7
+    };
+}
@@ -1,13 +1,18 @@
 package com.example.currencyconverter.data.local.entity;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Room Entity for storing favorite currency conversions
  * 2nd Semester - Room Database Implementation
+ *
+ * Amounts are fixed-point minor units of their currency
+ * (see {@link com.example.currencyconverter.data.money.Money}).
+ * Indexed on (timestamp, id), the keyset the favorites list pages by.
  */
-@Entity(tableName = "favorite_conversions")
+@Entity(tableName = "favorite_conversions", indices = { @Index(value = { "timestamp", "id" }) })
 public class FavoriteConversion {
 
     @PrimaryKey(autoGenerate = true)
@@ -15,15 +20,16 @@ public class FavoriteConversion {
 
     private String fromCurrency;
     private String toCurrency;
-    private double amount;
-    private double result;
+    private long amountMinor;
+    private long resultMinor;
     private long timestamp;
 
-    public FavoriteConversion(String fromCurrency, String toCurrency, double amount, double result, long timestamp) {
+    public FavoriteConversion(String fromCurrency, String toCurrency, long amountMinor, long resultMinor,
+            long timestamp) {
         this.fromCurrency = fromCurrency;
         this.toCurrency = toCurrency;
-        this.amount = amount;
-        this.result = result;
+        this.amountMinor = amountMinor;
+        this.resultMinor = resultMinor;
         this.timestamp = timestamp;
     }
 
@@ -52,20 +58,26 @@ public class FavoriteConversion {
         this.toCurrency = toCurrency;
     }
 
-    public double getAmount() {
-        return amount;
+    /**
+     * Amount in minor units of {@link #getFromCurrency()}
+     */
+    public long getAmountMinor() {
+        return amountMinor;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
     }
 
-    public double getResult() {
-        return result;
+    /**
+     * Result in minor units of {@link #getToCurrency()}
+     */
+    public long getResultMinor() {
+        return resultMinor;
     }
 
-    public void setResult(double result) {
-        this.result = result;
+    public void setResultMinor(long resultMinor) {
+        this.resultMinor = resultMinor;
     }
 
     public long getTimestamp() {
@@ -0,0 +1,78 @@
+package com.example.currencyconverter.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Room Entity for exchange rate history
+ *
+ * One row per block of consecutive snapshots of a base, compressed by
+ * {@link com.example.currencyconverter.data.history.HistoryChunk}.
+ * Keyed on (baseCurrency, startTime) so the chunks covering a time range
+ * are found through the primary key index.
+ */
+@Entity(tableName = "rate_history_chunks", primaryKeys = { "baseCurrency", "startTime" })
+public class RateHistoryChunk {
+
+    @NonNull
+    private String baseCurrency;
+
+    private long startTime;
+    private long endTime;
+    private int pointCount;
+
+    @NonNull
+    private byte[] data;
+
+    public RateHistoryChunk(@NonNull String baseCurrency, long startTime, long endTime, int pointCount,
+            @NonNull byte[] data) {
+        this.baseCurrency = baseCurrency;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.pointCount = pointCount;
+        this.data = data;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(@NonNull String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    @NonNull
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(@NonNull byte[] data) {
+        this.data = data;
+    }
+}
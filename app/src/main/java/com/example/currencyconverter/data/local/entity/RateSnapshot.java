@@ -0,0 +1,91 @@
+package com.example.currencyconverter.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room Entity for caching exchange rates
+ * Enables offline-first functionality
+ *
+ * One row per base currency holding the whole rate vector packed by
+ * {@link com.example.currencyconverter.data.rates.RateTableCodec}.
+ * A snapshot is written and read in a single statement, so readers
+ * never observe a partially written snapshot.
+ */
+@Entity(tableName = "rate_snapshots")
+public class RateSnapshot {
+
+    @PrimaryKey
+    @NonNull
+    private String baseCurrency;
+
+    @NonNull
+    private byte[] rates;
+
+    private int currencySetVersion;
+    private long providerTimestamp;
+    private long generation;
+    private long timestamp;
+
+    public RateSnapshot(@NonNull String baseCurrency, @NonNull byte[] rates, int currencySetVersion,
+            long providerTimestamp, long generation, long timestamp) {
+        this.baseCurrency = baseCurrency;
+        this.rates = rates;
+        this.currencySetVersion = currencySetVersion;
+        this.providerTimestamp = providerTimestamp;
+        this.generation = generation;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(@NonNull String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    @NonNull
+    public byte[] getRates() {
+        return rates;
+    }
+
+    public void setRates(@NonNull byte[] rates) {
+        this.rates = rates;
+    }
+
+    public int getCurrencySetVersion() {
+        return currencySetVersion;
+    }
+
+    public void setCurrencySetVersion(int currencySetVersion) {
+        this.currencySetVersion = currencySetVersion;
+    }
+
+    public long getProviderTimestamp() {
+        return providerTimestamp;
+    }
+
+    public void setProviderTimestamp(long providerTimestamp) {
+        this.providerTimestamp = providerTimestamp;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
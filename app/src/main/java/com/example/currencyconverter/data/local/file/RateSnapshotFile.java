@@ -0,0 +1,153 @@
+package com.example.currencyconverter.data.local.file;
+
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.rates.RateTableCodec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Latest rate snapshot per base as a fixed-layout file in app storage
+ *
+ * Read through a {@link MappedByteBuffer}, so a cold start can serve its
+ * first conversion without opening SQLite or running a cursor.
+ * Writes go to a temp file that is synced and renamed over the old one,
+ * so a crash mid-write leaves the previous snapshot intact.
+ * The header carries the Room generation the file mirrors; the repository
+ * deletes the file before each Room write, so a file that exists is never
+ * older than Room.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int   MAGIC
+ *   int   FILE_VERSION
+ *   long  generation
+ *   long  timestamp
+ *   long  providerTimestamp
+ *   ...   rate vector in {@link RateTableCodec} format
+ * </pre>
+ */
+public final class RateSnapshotFile {
+
+    private static final int MAGIC = 0x52415445; // "RATE"
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    // Accepts a file of any generation
+    private static final long ANY_GENERATION = -1;
+
+    private final File directory;
+
+    public RateSnapshotFile(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The stored snapshot, or null if there is none or it is unreadable
+     */
+    public RateTable read(String baseCurrency) {
+        return read(baseCurrency, ANY_GENERATION);
+    }
+
+    /**
+     * Read the stored snapshot only if it mirrors the given Room generation
+     *
+     * @return The stored snapshot, or null if there is none, it is
+     * unreadable, or it was written for another generation
+     */
+    public RateTable read(String baseCurrency, long generation) {
+        File file = fileFor(baseCurrency);
+        if (!file.exists() || file.length() < HEADER_BYTES) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FILE_VERSION) {
+                return null;
+            }
+            long stored = buffer.getLong();
+            if (generation != ANY_GENERATION && stored != generation) {
+                return null;
+            }
+            long timestamp = buffer.getLong();
+            long providerTimestamp = buffer.getLong();
+            return RateTableCodec.read(buffer, baseCurrency, timestamp, providerTimestamp);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Atomically replace the stored snapshot for the table's base
+     */
+    public void write(RateTable table, long generation) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + RateTableCodec.encodedSize(table));
+        buffer.putInt(MAGIC);
+        buffer.putInt(FILE_VERSION);
+        buffer.putLong(generation);
+        buffer.putLong(table.getTimestamp());
+        buffer.putLong(table.getProviderTimestamp());
+        RateTableCodec.write(table, buffer);
+        replace(fileFor(table.getBaseCurrency()), buffer.array(), buffer.position());
+    }
+
+    /**
+     * Update only the timestamps of the stored snapshot of a generation
+     * The file is rewritten through a temp file like {@link #write}, so a
+     * crash leaves either the old or the new header. A file of another
+     * generation no longer mirrors Room and is deleted instead.
+     */
+    public void touch(String baseCurrency, long generation, long timestamp, long providerTimestamp)
+            throws IOException {
+        File file = fileFor(baseCurrency);
+        if (!file.exists()) {
+            return;
+        }
+        byte[] bytes;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FILE_VERSION
+                || buffer.getLong() != generation) {
+            delete(baseCurrency);
+            return;
+        }
+        buffer.putLong(timestamp);
+        buffer.putLong(providerTimestamp);
+        replace(file, bytes, bytes.length);
+    }
+
+    /**
+     * @return Whether no snapshot file is left for the base
+     */
+    public boolean delete(String baseCurrency) {
+        File file = fileFor(baseCurrency);
+        return file.delete() || !file.exists();
+    }
+
+    private void replace(File target, byte[] bytes, int length) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File temp = new File(directory, target.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes, 0, length);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + target);
+        }
+    }
+
+    private File fileFor(String baseCurrency) {
+        return new File(directory, "rates_" + baseCurrency + ".bin");
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.currencyconverter.data.local.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.example.currencyconverter.data.local.dao.FavoriteConversionDao;
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Keyset-paged favorites, newest first
+ *
+ * Pages are addressed by the (timestamp, id) of a boundary row rather than
+ * by offset, so loading page 500 costs the same index range scan as page 1
+ * and rows inserted above the window do not shift what a key points to.
+ * - Refresh: the page starting at the key (inclusive), or the newest page
+ * - Append:  rows strictly older than the last loaded row
+ * - Prepend: rows strictly newer than the first loaded row
+ *
+ * Any write to favorite_conversions invalidates the source; the next one
+ * reloads only the window around the user's scroll position (see
+ * {@link #getRefreshKey}).
+ */
+public final class FavoritesPagingSource extends ListenableFuturePagingSource<FavoritesPagingSource.Key, FavoriteConversion> {
+
+    /**
+     * Position in the (timestamp DESC, id DESC) order
+     */
+    public static final class Key {
+        final long timestamp;
+        final int id;
+
+        Key(long timestamp, int id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        static Key of(FavoriteConversion favorite) {
+            return new Key(favorite.getTimestamp(), favorite.getId());
+        }
+    }
+
+    private final FavoriteConversionDao dao;
+    private final InvalidationTracker tracker;
+    private final InvalidationTracker.Observer observer;
+    // Guards added/removed so an observer is never added after the source was invalidated
+    private final Object observerLock = new Object();
+    private boolean observerAdded;
+    private boolean observerRemoved;
+    private final Executor executor;
+
+    /**
+     * @param executor Runs the queries, e.g. a repository read thread
+     */
+    public FavoritesPagingSource(FavoriteConversionDao dao, InvalidationTracker tracker, Executor executor) {
+        this.dao = dao;
+        this.tracker = tracker;
+        this.executor = executor;
+
+        observer = new InvalidationTracker.Observer("favorite_conversions") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        // Pager may build sources on the main thread; adding and removing observers touches the database
+        registerInvalidatedCallback(() -> {
+            executor.execute(this::stopObserving);
+            return kotlin.Unit.INSTANCE;
+        });
+    }
+
+    private void startObserving() {
+        synchronized (observerLock) {
+            if (observerAdded || observerRemoved) {
+                return;
+            }
+            tracker.addObserver(observer);
+            observerAdded = true;
+        }
+    }
+
+    private void stopObserving() {
+        synchronized (observerLock) {
+            if (observerRemoved) {
+                return;
+            }
+            observerRemoved = true;
+            if (observerAdded) {
+                tracker.removeObserver(observer);
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Key, FavoriteConversion>> loadFuture(@NonNull LoadParams<Key> params) {
+        ListenableFutureTask<LoadResult<Key, FavoriteConversion>> task = ListenableFutureTask.create(() -> {
+            try {
+                return load(params);
+            } catch (RuntimeException e) {
+                return new LoadResult.Error<>(e);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private LoadResult<Key, FavoriteConversion> load(LoadParams<Key> params) {
+        // Observe before the first query so no write between the two is missed
+        startObserving();
+
+        int limit = params.getLoadSize();
+        Key key = params.getKey();
+
+        if (params instanceof LoadParams.Prepend) {
+            List<FavoriteConversion> newer = dao.getNewerThan(key.timestamp, key.id, limit);
+            Collections.reverse(newer);
+            // Fewer rows than asked for: this page reaches the top
+            return page(newer, newer.size() < limit, false);
+        }
+        if (params instanceof LoadParams.Append) {
+            List<FavoriteConversion> older = dao.getOlderThan(key.timestamp, key.id, limit);
+            return page(older, false, older.size() < limit);
+        }
+
+        // Refresh
+        if (key == null) {
+            List<FavoriteConversion> newest = dao.getNewest(limit);
+            return page(newest, true, newest.size() < limit);
+        }
+        List<FavoriteConversion> from = dao.getFrom(key.timestamp, key.id, limit);
+        if (from.isEmpty()) {
+            // Everything from the anchor down is gone - start over from the top
+            List<FavoriteConversion> newest = dao.getNewest(limit);
+            return page(newest, true, newest.size() < limit);
+        }
+        return page(from, false, from.size() < limit);
+    }
+
+    private static LoadResult<Key, FavoriteConversion> page(List<FavoriteConversion> rows, boolean atTop,
+            boolean atBottom) {
+        if (rows.isEmpty()) {
+            return new LoadResult.Page<>(rows, null, null);
+        }
+        Key prevKey = atTop ? null : Key.of(rows.get(0));
+        Key nextKey = atBottom ? null : Key.of(rows.get(rows.size() - 1));
+        return new LoadResult.Page<>(rows, prevKey, nextKey);
+    }
+
+    /**
+     * Restart half an initial load above the row the user was looking at,
+     * so the refreshed window covers the screen
+     */
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, FavoriteConversion> state) {
+        Integer anchor = state.getAnchorPosition();
+        if (anchor == null) {
+            return null;
+        }
+        int start = anchor - state.getConfig().initialLoadSize / 2;
+        if (start <= 0) {
+            return null;
+        }
+        FavoriteConversion first = state.closestItemToPosition(start);
+        return first != null ? Key.of(first) : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.currencyconverter.data.money;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ISO 4217 minor units: how many decimal digits an amount of a currency has
+ *
+ * Most currencies use 2 (cents). The exceptions are listed explicitly;
+ * anything not listed, including unknown codes, defaults to 2.
+ */
+public final class CurrencyUnits {
+
+    public static final int DEFAULT_DIGITS = 2;
+
+    static final String[] ZERO_DIGITS = {
+            "BIF", "CLP", "DJF", "GNF", "ISK", "JPY", "KMF", "KRW", "PYG",
+            "RWF", "UGX", "UYI", "VND", "VUV", "XAF", "XOF", "XPF"
+    };
+
+    static final String[] THREE_DIGITS = {
+            "BHD", "IQD", "JOD", "KWD", "LYD", "OMR", "TND"
+    };
+
+    private static final Map<String, Integer> DIGITS = new HashMap<>();
+
+    static {
+        for (String code : ZERO_DIGITS) {
+            DIGITS.put(code, 0);
+        }
+        for (String code : THREE_DIGITS) {
+            DIGITS.put(code, 3);
+        }
+    }
+
+    private CurrencyUnits() {
+    }
+
+    /**
+     * Number of minor-unit digits of {@code currencyCode}
+     */
+    public static int digits(String currencyCode) {
+        Integer digits = DIGITS.get(currencyCode);
+        return digits != null ? digits : DEFAULT_DIGITS;
+    }
+
+    /**
+     * Minor units per major unit, e.g. 100 for USD, 1 for JPY, 1000 for KWD
+     */
+    public static long scale(String currencyCode) {
+        return Money.pow10(digits(currencyCode));
+    }
+
+    /**
+     * SQL expression giving the scale of the currency code in {@code column}
+     * For migrations that convert stored decimal amounts to minor units.
+     */
+    public static String sqlScale(String column) {
+        return "CASE WHEN `" + column + "` IN (" + sqlList(ZERO_DIGITS) + ") THEN 1 "
+                + "WHEN `" + column + "` IN (" + sqlList(THREE_DIGITS) + ") THEN 1000 "
+                + "ELSE 100 END";
+    }
+
+    private static String sqlList(String[] codes) {
+        StringBuilder list = new StringBuilder();
+        for (String code : codes) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append('\'').append(code).append('\'');
+        }
+        return list.toString();
+    }
+}
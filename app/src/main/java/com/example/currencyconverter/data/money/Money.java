@@ -0,0 +1,224 @@
+package com.example.currencyconverter.data.money;
+
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on amounts held as {@code long} minor units
+ *
+ * An amount of 12.34 USD is the long 1234, 1500 JPY is 1500 and
+ * 1.250 KWD is 1250 (see {@link CurrencyUnits}). Everything here is static
+ * and works on primitives, so conversions, sums and formatting allocate
+ * nothing on the hot path. Rounding is explicit and deterministic, using the
+ * {@link RoundingMode} semantics; overflow throws {@link ArithmeticException}
+ * instead of wrapping.
+ */
+public final class Money {
+
+    /**
+     * Rounding used for conversions unless a caller asks otherwise
+     * Half-even does not bias sums of many rounded amounts.
+     */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    // Doubles at or beyond this magnitude do not fit in a long
+    private static final double LONG_LIMIT = 9.223372036854775807E18;
+
+    private Money() {
+    }
+
+    static long pow10(int digits) {
+        return POW10[digits];
+    }
+
+    /**
+     * Round a decimal amount to minor units of a currency with {@code digits} decimals
+     */
+    public static long fromDouble(double amount, int digits, RoundingMode mode) {
+        return round(amount * POW10[digits], mode);
+    }
+
+    public static double toDouble(long minor, int digits) {
+        return (double) minor / POW10[digits];
+    }
+
+    /**
+     * Convert minor units of one currency into minor units of another at {@code rate}
+     *
+     * @param rate Units of the target per 1 unit of the source
+     */
+    public static long convert(long minor, int fromDigits, int toDigits, double rate, RoundingMode mode) {
+        double value = minor * rate;
+        if (toDigits >= fromDigits) {
+            value *= POW10[toDigits - fromDigits];
+        } else {
+            // Dividing by an exact power of ten is more precise than multiplying by 0.1
+            value /= POW10[fromDigits - toDigits];
+        }
+        return round(value, mode);
+    }
+
+    public static long convert(long minor, String from, String to, double rate, RoundingMode mode) {
+        return convert(minor, CurrencyUnits.digits(from), CurrencyUnits.digits(to), rate, mode);
+    }
+
+    /**
+     * Exact sum of {@code count} amounts of the same currency
+     */
+    public static long sum(long[] minor, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total = Math.addExact(total, minor[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Round {@code value} to a whole number of minor units
+     *
+     * @throws ArithmeticException if {@code value} is NaN, infinite or outside the long range,
+     *                             or is inexact under {@link RoundingMode#UNNECESSARY}
+     */
+    public static long round(double value, RoundingMode mode) {
+        if (!(Math.abs(value) < LONG_LIMIT)) {
+            throw new ArithmeticException("Amount out of range: " + value);
+        }
+        boolean negative = value < 0;
+        double magnitude = Math.abs(value);
+        double whole = Math.floor(magnitude);
+        double fraction = magnitude - whole;
+        long result = (long) whole;
+        int half = Double.compare(fraction, 0.5);
+        if (roundsAway(mode, negative, (result & 1) != 0, half, fraction != 0)) {
+            result++;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parse a plain decimal ("-1234.5678") straight to minor units, without going through double
+     * Digits beyond {@code digits} decimals are rounded with {@code mode}.
+     *
+     * @throws NumberFormatException if the text is not a plain decimal number
+     * @throws ArithmeticException   if the amount does not fit in a long
+     */
+    public static long parse(CharSequence text, int digits, RoundingMode mode) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        boolean negative = false;
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            negative = text.charAt(start) == '-';
+            start++;
+        }
+
+        long magnitude = 0;
+        int fractionDigits = -1;
+        int firstDropped = -1;
+        boolean sticky = false;
+        boolean anyDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+            anyDigit = true;
+            int digit = c - '0';
+            if (fractionDigits >= digits) {
+                // Beyond the currency's precision: remember enough to round
+                if (firstDropped < 0) {
+                    firstDropped = digit;
+                } else if (digit != 0) {
+                    sticky = true;
+                }
+                continue;
+            }
+            magnitude = Math.addExact(Math.multiplyExact(magnitude, 10), digit);
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (!anyDigit) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+
+        // Pad missing decimals, e.g. "12.3" USD -> 1230
+        int present = Math.max(fractionDigits, 0);
+        magnitude = Math.multiplyExact(magnitude, POW10[digits - present]);
+
+        if (firstDropped >= 0) {
+            int half = firstDropped > 5 || (firstDropped == 5 && sticky) ? 1 : firstDropped == 5 ? 0 : -1;
+            if (roundsAway(mode, negative, (magnitude & 1) != 0, half, firstDropped > 0 || sticky)) {
+                magnitude = Math.addExact(magnitude, 1);
+            }
+        }
+        return negative ? -magnitude : magnitude;
+    }
+
+    /**
+     * Whether a discarded fraction increments the magnitude
+     *
+     * @param half    Discarded fraction compared to one half (-1, 0, 1)
+     * @param inexact Whether anything non-zero was discarded
+     */
+    private static boolean roundsAway(RoundingMode mode, boolean negative, boolean odd, int half, boolean inexact) {
+        if (!inexact) {
+            return false;
+        }
+        switch (mode) {
+            case UP:
+                return true;
+            case DOWN:
+                return false;
+            case CEILING:
+                return !negative;
+            case FLOOR:
+                return negative;
+            case HALF_UP:
+                return half >= 0;
+            case HALF_DOWN:
+                return half > 0;
+            case HALF_EVEN:
+                return half > 0 || (half == 0 && odd);
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+    }
+
+    /**
+     * Append {@code minor} as a plain decimal with the currency's digits, e.g. "-1234.50"
+     */
+    public static StringBuilder format(StringBuilder out, long minor, int digits) {
+        if (digits == 0 || minor == Long.MIN_VALUE) {
+            return digits == 0 ? out.append(minor) : out.append(toDouble(minor, digits));
+        }
+        if (minor < 0) {
+            out.append('-');
+            minor = -minor;
+        }
+        long scale = POW10[digits];
+        out.append(minor / scale).append('.');
+        long fraction = minor % scale;
+        for (long pad = scale / 10; pad > fraction && pad > 1; pad /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    public static String format(long minor, String currencyCode) {
+        return format(new StringBuilder(24), minor, CurrencyUnits.digits(currencyCode)).toString();
+    }
+}
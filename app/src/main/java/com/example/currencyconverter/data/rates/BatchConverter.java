@@ -0,0 +1,94 @@
+package com.example.currencyconverter.data.rates;
+
+import java.util.Arrays;
+
+/**
+ * Bulk conversions over one {@link CrossRateEngine}
+ *
+ * Both operations are plain loops over primitive arrays: inputs are ordinals
+ * and amounts, results are written into a caller-owned buffer that can be
+ * reused across refreshes, and nothing is allocated per item.
+ * Unknown currencies produce NaN.
+ */
+public final class BatchConverter {
+
+    private final CrossRateEngine engine;
+
+    public BatchConverter(CrossRateEngine engine) {
+        this.engine = engine;
+    }
+
+    public CrossRateEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Size of the buffer {@link #convertToAll} needs; one slot per currency ordinal
+     */
+    public int capacity() {
+        return engine.getPivot().capacity();
+    }
+
+    /**
+     * Convert one amount into every currency
+     * {@code out[ordinal]} receives the amount in that currency, NaN where there is no rate.
+     *
+     * @param out Buffer of at least {@link #capacity()} slots
+     * @return Number of currencies converted into
+     */
+    public int convertToAll(double amount, int fromOrdinal, double[] out) {
+        int capacity = capacity();
+        RateTable row = engine.getRatesFor(fromOrdinal);
+        if (row == null) {
+            Arrays.fill(out, 0, capacity, Double.NaN);
+            return 0;
+        }
+        double[] rates = row.rates();
+        int converted = 0;
+        for (int to = 0; to < capacity; to++) {
+            double rate = to < rates.length ? rates[to] : Double.NaN;
+            out[to] = rate * amount;
+            if (!Double.isNaN(rate)) {
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Convert {@code count} (amount, from, to) triples given as parallel arrays
+     *
+     * @param out Buffer of at least {@code count} slots; {@code out[i]} receives triple i
+     * @return Number of triples that could be converted
+     */
+    public int convert(double[] amounts, int[] fromOrdinals, int[] toOrdinals, int count, double[] out) {
+        int converted = 0;
+        for (int i = 0; i < count; i++) {
+            double result = engine.getRate(fromOrdinals[i], toOrdinals[i]) * amounts[i];
+            out[i] = result;
+            if (!Double.isNaN(result)) {
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Resolve currency codes to ordinals once, so repeated batches skip the string lookups
+     *
+     * @param out Buffer of at least {@code count} slots; unknown codes map to {@link CurrencyCodes#UNKNOWN}
+     */
+    public static int[] resolve(String[] codes, int count, int[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = CurrencyCodes.ordinalOf(codes[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Return {@code buffer} if it has at least {@code size} slots, otherwise a larger one
+     */
+    public static double[] ensureCapacity(double[] buffer, int size) {
+        return buffer != null && buffer.length >= size ? buffer : new double[Math.max(size, 16)];
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.currencyconverter.data.rates;
+
+/**
+ * Cross-rate engine built from a single pivot snapshot
+ *
+ * The provider returns rates as "1 PIVOT = x TARGET". From that one vector
+ * every pair can be derived locally:
+ * - inverse:  1 X = 1 / rate(X) PIVOT
+ * - cross:    1 X = rate(Y) / rate(X) Y
+ *
+ * All pairs are computed once, when the snapshot arrives, into a dense
+ * currency-by-currency matrix indexed by {@link CurrencyCodes} ordinal.
+ * Each matrix row is exposed as a {@link RateTable} without copying.
+ */
+public final class CrossRateEngine {
+
+    private final RateTable pivot;
+    private final RateTable[] rows;
+
+    public CrossRateEngine(RateTable pivot) {
+        this.pivot = pivot;
+
+        int size = pivot.capacity();
+        rows = new RateTable[size];
+        for (int from = 0; from < size; from++) {
+            double fromRate = pivot.getRate(from);
+            if (Double.isNaN(fromRate)) {
+                continue;
+            }
+            double inverse = 1.0 / fromRate;
+            double[] row = new double[size];
+            for (int to = 0; to < size; to++) {
+                // NaN propagates for currencies missing from the snapshot
+                row[to] = pivot.getRate(to) * inverse;
+            }
+            // Guard against rounding noise on the diagonal
+            row[from] = 1.0;
+            rows[from] = new RateTable(from, row, pivot.getTimestamp(), pivot.getProviderTimestamp());
+        }
+    }
+
+    public RateTable getPivot() {
+        return pivot;
+    }
+
+    public String getPivotCurrency() {
+        return pivot.getBaseCurrency();
+    }
+
+    public long getTimestamp() {
+        return pivot.getTimestamp();
+    }
+
+    /**
+     * Number of currencies that can be converted between
+     */
+    public int size() {
+        return pivot.size();
+    }
+
+    public boolean supports(int ordinal) {
+        return pivot.contains(ordinal);
+    }
+
+    public boolean supports(String currency) {
+        return pivot.contains(currency);
+    }
+
+    /**
+     * @return Units of {@code to} per 1 {@code from}, or NaN if either currency is unknown
+     */
+    public double getRate(int from, int to) {
+        RateTable row = getRatesFor(from);
+        return row != null ? row.getRate(to) : Double.NaN;
+    }
+
+    public double getRate(String from, String to) {
+        return getRate(CurrencyCodes.ordinalOf(from), CurrencyCodes.ordinalOf(to));
+    }
+
+    public double convert(double amount, int from, int to) {
+        return getRate(from, to) * amount;
+    }
+
+    /**
+     * @return Rates with {@code baseOrdinal} as base, or null if the base is not in the snapshot
+     */
+    public RateTable getRatesFor(int baseOrdinal) {
+        if (baseOrdinal < 0 || baseOrdinal >= rows.length) {
+            return null;
+        }
+        return rows[baseOrdinal];
+    }
+
+    public RateTable getRatesFor(String baseCurrency) {
+        return getRatesFor(CurrencyCodes.ordinalOf(baseCurrency));
+    }
+}
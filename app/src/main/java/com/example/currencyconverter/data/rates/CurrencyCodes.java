@@ -0,0 +1,70 @@
+package com.example.currencyconverter.data.rates;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide interner for ISO 4217 currency codes
+ *
+ * Every code seen by the app is assigned a small, dense integer ordinal
+ * the first time it is interned. Ordinals never change for the life of the
+ * process, so they can be used directly as indices into rate arrays.
+ * Ordinals are NOT stable across processes and must not be persisted.
+ */
+public final class CurrencyCodes {
+
+    public static final int UNKNOWN = -1;
+
+    private static final ConcurrentHashMap<String, Integer> ORDINALS = new ConcurrentHashMap<>(256);
+    private static volatile String[] codes = new String[0];
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Return the ordinal for a code, interning it if this is the first time it is seen
+     */
+    public static int intern(String code) {
+        Integer ordinal = ORDINALS.get(code);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (CurrencyCodes.class) {
+            ordinal = ORDINALS.get(code);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            String[] current = codes;
+            String[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = code;
+            // Publish the array before the ordinal so readers never see an index out of range
+            codes = grown;
+            ORDINALS.put(code, current.length);
+            return current.length;
+        }
+    }
+
+    /**
+     * Return the ordinal for a code without interning it
+     *
+     * @return The ordinal, or {@link #UNKNOWN} if the code was never interned
+     */
+    public static int ordinalOf(String code) {
+        if (code == null) {
+            return UNKNOWN;
+        }
+        Integer ordinal = ORDINALS.get(code);
+        return ordinal != null ? ordinal : UNKNOWN;
+    }
+
+    public static String codeOf(int ordinal) {
+        return codes[ordinal];
+    }
+
+    /**
+     * Number of codes interned so far (upper bound for any ordinal)
+     */
+    public static int count() {
+        return codes.length;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.currencyconverter.data.rates;
+
+import java.util.Arrays;
+
+/**
+ * Rates that moved between two snapshots of the same base
+ *
+ * Each entry is (currency, old rate, new rate). A currency that appeared
+ * has an old rate of NaN; one that disappeared has a new rate of NaN.
+ * Entries are stored in parallel primitive arrays ordered by ordinal.
+ */
+public final class RateChangeSet {
+
+    private final int baseOrdinal;
+    private final long timestamp;
+    private final int[] ordinals;
+    private final double[] oldRates;
+    private final double[] newRates;
+
+    private RateChangeSet(int baseOrdinal, long timestamp, int[] ordinals, double[] oldRates, double[] newRates) {
+        this.baseOrdinal = baseOrdinal;
+        this.timestamp = timestamp;
+        this.ordinals = ordinals;
+        this.oldRates = oldRates;
+        this.newRates = newRates;
+    }
+
+    /**
+     * Compare two snapshots rate by rate
+     * With no previous snapshot every rate in {@code current} counts as added.
+     *
+     * @throws IllegalArgumentException if the snapshots have different bases
+     */
+    public static RateChangeSet diff(RateTable previous, RateTable current) {
+        if (previous != null && previous.getBaseOrdinal() != current.getBaseOrdinal()) {
+            throw new IllegalArgumentException("Cannot diff " + previous.getBaseCurrency()
+                    + " against " + current.getBaseCurrency());
+        }
+
+        int capacity = Math.max(current.capacity(), previous != null ? previous.capacity() : 0);
+        int[] ordinals = new int[capacity];
+        double[] oldRates = new double[capacity];
+        double[] newRates = new double[capacity];
+        int count = 0;
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            double oldRate = previous != null ? previous.getRate(ordinal) : Double.NaN;
+            double newRate = current.getRate(ordinal);
+            // Exact comparison: any provider update is a change, and NaN == NaN is "still missing"
+            if (Double.doubleToLongBits(oldRate) != Double.doubleToLongBits(newRate)) {
+                ordinals[count] = ordinal;
+                oldRates[count] = oldRate;
+                newRates[count] = newRate;
+                count++;
+            }
+        }
+        return new RateChangeSet(current.getBaseOrdinal(), current.getTimestamp(),
+                Arrays.copyOf(ordinals, count), Arrays.copyOf(oldRates, count), Arrays.copyOf(newRates, count));
+    }
+
+    public String getBaseCurrency() {
+        return CurrencyCodes.codeOf(baseOrdinal);
+    }
+
+    /**
+     * Fetch time of the newer snapshot
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    public boolean isEmpty() {
+        return ordinals.length == 0;
+    }
+
+    public int getOrdinal(int index) {
+        return ordinals[index];
+    }
+
+    public String getCurrency(int index) {
+        return CurrencyCodes.codeOf(ordinals[index]);
+    }
+
+    public double getOldRate(int index) {
+        return oldRates[index];
+    }
+
+    public double getNewRate(int index) {
+        return newRates[index];
+    }
+
+    /**
+     * Whether a currency was added to or removed from the snapshot
+     */
+    public boolean isCurrencySetChanged() {
+        for (int i = 0; i < ordinals.length; i++) {
+            if (Double.isNaN(oldRates[i]) || Double.isNaN(newRates[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(int ordinal) {
+        return Arrays.binarySearch(ordinals, ordinal) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RateChangeSet[" + getBaseCurrency() + ", changed=" + ordinals.length + "]";
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.currencyconverter.data.rates;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable exchange rate snapshot for one base currency
+ *
+ * Rates are stored in a primitive {@code double[]} indexed by
+ * {@link CurrencyCodes} ordinal, so a lookup is a single array read and a
+ * conversion allocates nothing. Missing currencies hold NaN.
+ */
+public final class RateTable {
+
+    /**
+     * Primitive callback for iterating rates without boxing
+     */
+    public interface RateConsumer {
+        void accept(int ordinal, double rate);
+    }
+
+    private final int baseOrdinal;
+    private final double[] rates;
+    private final long timestamp;
+    private final long providerTimestamp;
+    private final int size;
+
+    /**
+     * Wraps {@code rates} without copying; callers hand over ownership of the array
+     */
+    RateTable(int baseOrdinal, double[] rates, long timestamp, long providerTimestamp) {
+        this.baseOrdinal = baseOrdinal;
+        this.rates = rates;
+        this.timestamp = timestamp;
+        this.providerTimestamp = providerTimestamp;
+
+        int present = 0;
+        for (double rate : rates) {
+            if (!Double.isNaN(rate)) {
+                present++;
+            }
+        }
+        this.size = present;
+    }
+
+    public static RateTable fromMap(String baseCurrency, Map<String, Double> rates, long timestamp) {
+        Builder builder = new Builder(baseCurrency);
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                builder.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder.build(timestamp);
+    }
+
+    /**
+     * Same rates with a new fetch time; the rate array is shared, not copied
+     */
+    public RateTable withTimestamp(long newTimestamp) {
+        return new RateTable(baseOrdinal, rates, newTimestamp, providerTimestamp);
+    }
+
+    public int getBaseOrdinal() {
+        return baseOrdinal;
+    }
+
+    public String getBaseCurrency() {
+        return CurrencyCodes.codeOf(baseOrdinal);
+    }
+
+    /**
+     * Time the snapshot was fetched on this device
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Time the provider last updated the rates, or 0 if unknown
+     */
+    public long getProviderTimestamp() {
+        return providerTimestamp;
+    }
+
+    /**
+     * Number of currencies with a rate in this table
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Exclusive upper bound for ordinals stored in this table
+     */
+    public int capacity() {
+        return rates.length;
+    }
+
+    public boolean contains(int ordinal) {
+        return ordinal >= 0 && ordinal < rates.length && !Double.isNaN(rates[ordinal]);
+    }
+
+    public boolean contains(String currency) {
+        return contains(CurrencyCodes.ordinalOf(currency));
+    }
+
+    /**
+     * @return Units of the target per 1 base, or NaN if the target is not in the table
+     */
+    public double getRate(int ordinal) {
+        if (ordinal < 0 || ordinal >= rates.length) {
+            return Double.NaN;
+        }
+        return rates[ordinal];
+    }
+
+    public double getRate(String currency) {
+        return getRate(CurrencyCodes.ordinalOf(currency));
+    }
+
+    public double convert(double amount, int toOrdinal) {
+        return getRate(toOrdinal) * amount;
+    }
+
+    /**
+     * The backing array, shared for bulk loops in this package; must not be modified
+     */
+    double[] rates() {
+        return rates;
+    }
+
+    public void forEach(RateConsumer consumer) {
+        for (int i = 0; i < rates.length; i++) {
+            double rate = rates[i];
+            if (!Double.isNaN(rate)) {
+                consumer.accept(i, rate);
+            }
+        }
+    }
+
+    /**
+     * Collects rates for a new table
+     * Codes are interned as they are added, so the table is sized to the final ordinal space.
+     */
+    public static final class Builder {
+
+        private final int baseOrdinal;
+        private double[] rates;
+        private long providerTimestamp;
+
+        public Builder(String baseCurrency) {
+            this.baseOrdinal = CurrencyCodes.intern(baseCurrency);
+            this.rates = newRateArray(Math.max(CurrencyCodes.count(), baseOrdinal + 1));
+            rates[baseOrdinal] = 1.0;
+        }
+
+        public Builder put(String currency, double rate) {
+            return put(CurrencyCodes.intern(currency), rate);
+        }
+
+        public Builder put(int ordinal, double rate) {
+            if (ordinal >= rates.length) {
+                int oldLength = rates.length;
+                rates = Arrays.copyOf(rates, Math.max(ordinal + 1, CurrencyCodes.count()));
+                Arrays.fill(rates, oldLength, rates.length, Double.NaN);
+            }
+            // Non-positive or infinite rates cannot be used for conversion
+            rates[ordinal] = rate > 0 && !Double.isInfinite(rate) ? rate : Double.NaN;
+            return this;
+        }
+
+        public Builder setProviderTimestamp(long providerTimestamp) {
+            this.providerTimestamp = providerTimestamp;
+            return this;
+        }
+
+        public RateTable build(long timestamp) {
+            rates[baseOrdinal] = 1.0;
+            RateTable table = new RateTable(baseOrdinal, rates, timestamp, providerTimestamp);
+            // The table now owns the array
+            rates = newRateArray(rates.length);
+            return table;
+        }
+    }
+
+    static double[] newRateArray(int length) {
+        double[] array = new double[length];
+        Arrays.fill(array, Double.NaN);
+        return array;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.currencyconverter.data.rates;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Packs a {@link RateTable} into a compact binary vector and back
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int     FORMAT_VERSION
+ *   int     count
+ *   byte[3] code        x count   (the "currency set", ISO 4217 ASCII)
+ *   double  rate        x count   (same order as the codes)
+ * </pre>
+ *
+ * Ordinals are process-local, so the blob carries its own currency set.
+ * The set is identified by {@link #currencySetVersion(RateTable)}; decoding
+ * a blob with the same set as the previous one reuses the resolved ordinals
+ * and only reads the double vector.
+ */
+public final class RateTableCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int CODE_LENGTH = 3;
+    private static final int HEADER_BYTES = 8;
+
+    // Last decoded currency set, reused while the set does not change
+    private static byte[] lastCodeBytes = new byte[0];
+    private static int[] lastOrdinals = new int[0];
+
+    private RateTableCodec() {
+    }
+
+    public static byte[] encode(RateTable table) {
+        int count = countEncodable(table);
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(count));
+        write(table, count, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Write {@code table} at the buffer's position
+     */
+    public static void write(RateTable table, ByteBuffer buffer) {
+        write(table, countEncodable(table), buffer);
+    }
+
+    private static void write(RateTable table, int count, ByteBuffer buffer) {
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(count);
+
+        int codeStart = buffer.position();
+        int rateStart = codeStart + count * CODE_LENGTH;
+        int index = 0;
+        for (int ordinal = 0; ordinal < table.capacity(); ordinal++) {
+            double rate = table.getRate(ordinal);
+            String code = CurrencyCodes.codeOf(ordinal);
+            if (Double.isNaN(rate) || code.length() != CODE_LENGTH) {
+                continue;
+            }
+            int codeOffset = codeStart + index * CODE_LENGTH;
+            for (int c = 0; c < CODE_LENGTH; c++) {
+                buffer.put(codeOffset + c, (byte) code.charAt(c));
+            }
+            buffer.putDouble(rateStart + index * 8, rate);
+            index++;
+        }
+        buffer.position(rateStart + count * 8);
+    }
+
+    /**
+     * Number of bytes {@link #encode(RateTable)} produces for {@code table}
+     */
+    public static int encodedSize(RateTable table) {
+        return encodedSize(countEncodable(table));
+    }
+
+    private static int encodedSize(int count) {
+        return HEADER_BYTES + count * (CODE_LENGTH + 8);
+    }
+
+    public static RateTable decode(byte[] blob, String baseCurrency, long timestamp, long providerTimestamp) {
+        return read(ByteBuffer.wrap(blob), baseCurrency, timestamp, providerTimestamp);
+    }
+
+    /**
+     * Read a table starting at the buffer's position
+     *
+     * @throws IllegalArgumentException if the buffer holds an unknown format
+     */
+    public static RateTable read(ByteBuffer buffer, String baseCurrency, long timestamp, long providerTimestamp) {
+        int format = buffer.getInt();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported rate format: " + format);
+        }
+        int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() < count * (CODE_LENGTH + 8)) {
+            throw new IllegalArgumentException("Truncated rate vector");
+        }
+
+        byte[] codeBytes = new byte[count * CODE_LENGTH];
+        buffer.get(codeBytes);
+        int[] ordinals = resolveOrdinals(codeBytes, count);
+
+        RateTable.Builder builder = new RateTable.Builder(baseCurrency)
+                .setProviderTimestamp(providerTimestamp);
+        for (int i = 0; i < count; i++) {
+            builder.put(ordinals[i], buffer.getDouble());
+        }
+        return builder.build(timestamp);
+    }
+
+    /**
+     * Stable identifier of the currency set in {@code table}
+     * Changes whenever a currency is added to or removed from the snapshot.
+     */
+    public static int currencySetVersion(RateTable table) {
+        int hash = 1;
+        for (int ordinal = 0; ordinal < table.capacity(); ordinal++) {
+            if (table.contains(ordinal)) {
+                hash = 31 * hash + CurrencyCodes.codeOf(ordinal).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    private static synchronized int[] resolveOrdinals(byte[] codeBytes, int count) {
+        if (Arrays.equals(codeBytes, lastCodeBytes)) {
+            return lastOrdinals;
+        }
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            ordinals[i] = CurrencyCodes.intern(
+                    new String(codeBytes, i * CODE_LENGTH, CODE_LENGTH, StandardCharsets.US_ASCII));
+        }
+        lastCodeBytes = codeBytes;
+        lastOrdinals = ordinals;
+        return ordinals;
+    }
+
+    private static int countEncodable(RateTable table) {
+        int count = 0;
+        for (int ordinal = 0; ordinal < table.capacity(); ordinal++) {
+            if (table.contains(ordinal) && CurrencyCodes.codeOf(ordinal).length() == CODE_LENGTH) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
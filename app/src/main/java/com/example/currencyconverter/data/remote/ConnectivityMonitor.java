@@ -0,0 +1,82 @@
+package com.example.currencyconverter.data.remote;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Process-wide view of connectivity, pushed by the system instead of polled
+ *
+ * Registers one default network callback for the lifetime of the process.
+ * {@link #isOnline()} is a volatile read, cheap enough for every tap; the
+ * network is considered usable once it has internet and has been validated.
+ */
+public final class ConnectivityMonitor {
+
+    private static ConnectivityMonitor instance;
+
+    private final MutableLiveData<Boolean> online = new MutableLiveData<>();
+    private volatile boolean isOnline;
+
+    private ConnectivityMonitor(Context context) {
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm == null) {
+            // No connectivity service - assume online and let requests fail on their own
+            update(true);
+            return;
+        }
+
+        // Seed the state; the callback delivers changes from here on
+        NetworkCapabilities capabilities = cm.getNetworkCapabilities(cm.getActiveNetwork());
+        update(isUsable(capabilities));
+
+        cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                update(isUsable(capabilities));
+            }
+
+            @Override
+            public void onLost(@NonNull Network network) {
+                update(false);
+            }
+        });
+    }
+
+    public static synchronized ConnectivityMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new ConnectivityMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public boolean isOnline() {
+        return isOnline;
+    }
+
+    /**
+     * Connectivity changes, for screens that show an offline indicator
+     */
+    public LiveData<Boolean> getOnline() {
+        return online;
+    }
+
+    private void update(boolean usable) {
+        if (usable != isOnline || online.getValue() == null) {
+            android.util.Log.d("ConnectivityMonitor", usable ? "Online" : "Offline");
+        }
+        isOnline = usable;
+        online.postValue(usable);
+    }
+
+    private static boolean isUsable(NetworkCapabilities capabilities) {
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
 
 import retrofit2.Call;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Path;
 
 /**
@@ -12,8 +13,15 @@ import retrofit2.http.Path;
  */
 public interface CurrencyApiService {
 
+    /**
+     * @param haveSnapshot Provider timestamp of the snapshot the caller holds for this base,
+     *                     so a 304 for that same snapshot can be answered with
+     *                     {@link ExchangeRateResponse#notModified()};
+     *                     null to always receive a full body
+     */
     @GET("v6/{apiKey}/latest/{base}")
     Call<ExchangeRateResponse> getExchangeRates(
             @Path("apiKey") String apiKey,
-            @Path("base") String baseCurrency);
+            @Path("base") String baseCurrency,
+            @Header(NotModifiedInterceptor.HEADER_HAVE_SNAPSHOT) Long haveSnapshot);
 }
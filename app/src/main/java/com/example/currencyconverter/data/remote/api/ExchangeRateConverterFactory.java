@@ -0,0 +1,144 @@
+package com.example.currencyconverter.data.remote.api;
+
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Retrofit converter that streams exchange rate JSON into a {@link RateTable}
+ *
+ * Uses Gson's token reader instead of reflective binding, so no
+ * intermediate {@code Map<String, Double>} or boxed values are built.
+ * Fields the app does not use are skipped without being materialized.
+ * Other response types fall through to the next converter factory.
+ */
+public final class ExchangeRateConverterFactory extends Converter.Factory {
+
+    public static ExchangeRateConverterFactory create() {
+        return new ExchangeRateConverterFactory();
+    }
+
+    private ExchangeRateConverterFactory() {
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+            Retrofit retrofit) {
+        if (type != ExchangeRateResponse.class) {
+            return null;
+        }
+        return (Converter<ResponseBody, ExchangeRateResponse>) body -> {
+            try {
+                if (NotModifiedInterceptor.isNotModified(body)) {
+                    return ExchangeRateResponse.notModified();
+                }
+                return parse(body.charStream());
+            } finally {
+                body.close();
+            }
+        };
+    }
+
+    /**
+     * Decode one exchange rate response
+     *
+     * @throws IOException if the JSON is malformed
+     */
+    public static ExchangeRateResponse parse(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+
+        String result = null;
+        String errorType = null;
+        String baseCode = null;
+        long lastUpdateUnix = 0;
+        long nextUpdateUnix = 0;
+
+        // Rates may arrive before base_code, so collect them as primitives first
+        int count = 0;
+        int[] ordinals = new int[192];
+        double[] values = new double[192];
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "result":
+                    result = json.nextString();
+                    break;
+                case "error-type":
+                    errorType = json.nextString();
+                    break;
+                case "base_code":
+                    baseCode = json.nextString();
+                    break;
+                case "time_last_update_unix":
+                    lastUpdateUnix = json.nextLong();
+                    break;
+                case "time_next_update_unix":
+                    nextUpdateUnix = json.nextLong();
+                    break;
+                case "conversion_rates":
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        if (count == ordinals.length) {
+                            ordinals = Arrays.copyOf(ordinals, count * 2);
+                            values = Arrays.copyOf(values, count * 2);
+                        }
+                        ordinals[count] = CurrencyCodes.intern(json.nextName());
+                        if (json.peek() == JsonToken.NUMBER) {
+                            values[count++] = json.nextDouble();
+                        } else {
+                            json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+
+        RateTable rates = null;
+        if (baseCode != null && count > 0) {
+            RateTable.Builder builder = new RateTable.Builder(baseCode)
+                    .setProviderTimestamp(lastUpdateUnix * 1000);
+            for (int i = 0; i < count; i++) {
+                builder.put(ordinals[i], values[i]);
+            }
+            rates = builder.build(System.currentTimeMillis());
+        }
+
+        return new ExchangeRateResponse(result, errorType, baseCode, lastUpdateUnix, nextUpdateUnix, rates);
+    }
+
+    /**
+     * Read only the provider timestamp, stopping as soon as it is found
+     *
+     * @return The timestamp in milliseconds, or 0 if the response has none
+     * @throws IOException if the JSON is malformed or ends before the timestamp
+     */
+    public static long readProviderTimestamp(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("time_last_update_unix")) {
+                return json.nextLong() * 1000;
+            }
+            json.skipValue();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.currencyconverter.data.remote.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Turns a revalidated (304) rate response into an empty "not modified" body
+ *
+ * The caller sends the provider timestamp of the snapshot it holds in
+ * {@link #HEADER_HAVE_SNAPSHOT}. A 304 only says the HTTP cache entry is
+ * current, and that entry can be newer than the caller's snapshot (e.g. its
+ * Room write failed), so the provider timestamp at the top of the cached
+ * body is compared first:
+ * - Same snapshot: an empty marker body replaces the cached payload, so the
+ *   converter skips parsing and the repository skips rewriting Room
+ * - Different snapshot, or no header: the cached body is returned as usual
+ */
+public final class NotModifiedInterceptor implements Interceptor {
+
+    /**
+     * Request header set by the app, stripped before the request leaves the device
+     */
+    public static final String HEADER_HAVE_SNAPSHOT = "X-Have-Snapshot";
+
+    // The provider timestamp precedes the rates, well within this prefix
+    private static final long PEEK_BYTES = 16 * 1024;
+
+    static final MediaType NOT_MODIFIED = MediaType.get("application/x-not-modified");
+
+    /**
+     * Network interceptor: store responses as "no-cache" so OkHttp revalidates
+     * them with If-None-Match / If-Modified-Since on every request
+     */
+    static final Interceptor ALWAYS_REVALIDATE = chain -> {
+        Response response = chain.proceed(chain.request());
+        if (response.code() != 200) {
+            return response;
+        }
+        return response.newBuilder()
+                .header("Cache-Control", "no-cache")
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    };
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String haveSnapshot = request.header(HEADER_HAVE_SNAPSHOT);
+        if (haveSnapshot != null) {
+            request = request.newBuilder().removeHeader(HEADER_HAVE_SNAPSHOT).build();
+        }
+
+        Response response = chain.proceed(request);
+        Response networkResponse = response.networkResponse();
+        if (haveSnapshot == null || networkResponse == null || networkResponse.code() != 304
+                || response.cacheResponse() == null || response.body() == null) {
+            return response;
+        }
+        if (!haveSnapshot.equals(Long.toString(cachedProviderTimestamp(response)))) {
+            android.util.Log.d("NotModifiedInterceptor", "Cached body is not the caller's snapshot, serving it");
+            return response;
+        }
+
+        // Drop the cached payload; the caller's snapshot is still current
+        response.body().close();
+        return response.newBuilder()
+                .body(ResponseBody.create("", NOT_MODIFIED))
+                .build();
+    }
+
+    /**
+     * @return Provider timestamp of the cached body, or -1 if it cannot be read
+     */
+    private static long cachedProviderTimestamp(Response response) {
+        try (ResponseBody prefix = response.peekBody(PEEK_BYTES)) {
+            return ExchangeRateConverterFactory.readProviderTimestamp(prefix.charStream());
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    static boolean isNotModified(ResponseBody body) {
+        MediaType type = body.contentType();
+        return type != null && NOT_MODIFIED.type().equals(type.type())
+                && NOT_MODIFIED.subtype().equals(type.subtype());
+    }
+}
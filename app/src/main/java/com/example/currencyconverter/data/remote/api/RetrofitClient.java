@@ -1,24 +1,57 @@
 package com.example.currencyconverter.data.remote.api;
 
+import android.content.Context;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Retrofit client singleton
  * 2nd Semester - Reorganized into data layer
+ *
+ * Backed by a tuned OkHttpClient:
+ * - Bounded on-disk HTTP cache
+ * - Every cached rate response is revalidated with ETag / Last-Modified
+ * - Transparent gzip (OkHttp adds Accept-Encoding and decompresses)
+ * - 304 Not Modified surfaced without re-parsing (see {@link NotModifiedInterceptor})
  */
 public class RetrofitClient {
 
     private static final String BASE_URL = "https://v6.exchangerate-api.com/";
+    private static final long HTTP_CACHE_BYTES = 5L * 1024 * 1024;
     private static Retrofit retrofit;
 
-    public static Retrofit getInstance() {
+    public static synchronized Retrofit getInstance(Context context) {
         if (retrofit == null) {
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
+            File cacheDir = new File(context.getApplicationContext().getCacheDir(), "http_cache");
+            retrofit = create(BASE_URL, cacheDir);
         }
         return retrofit;
     }
+
+    /**
+     * Build a client against any base URL, e.g. a local MockWebServer in tests
+     */
+    public static Retrofit create(String baseUrl, File cacheDir) {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir, HTTP_CACHE_BYTES))
+                .addInterceptor(new NotModifiedInterceptor())
+                .addNetworkInterceptor(NotModifiedInterceptor.ALWAYS_REVALIDATE)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(15, TimeUnit.SECONDS)
+                .build();
+
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                // Streaming decoder for rate responses, Gson for anything else
+                .addConverterFactory(ExchangeRateConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build();
+    }
 }
@@ -1,22 +1,86 @@
 package com.example.currencyconverter.data.remote.model;
 
-import com.google.gson.annotations.SerializedName;
-import java.util.Map;
+import com.example.currencyconverter.data.rates.RateTable;
 
 /**
  * Response model for exchange rate API
  * 2nd Semester - Reorganized into data layer
+ *
+ * Built by {@link com.example.currencyconverter.data.remote.api.ExchangeRateConverterFactory},
+ * which decodes the rates straight into a {@link RateTable}.
  */
 public class ExchangeRateResponse {
 
-    @SerializedName("conversion_rates")
-    private Map<String, Double> rates;
+    private final String result;
+    private final String errorType;
+    private final String baseCode;
+    private final long lastUpdateUnix;
+    private final long nextUpdateUnix;
+    private final RateTable rates;
+    private final boolean notModified;
 
-    public Map<String, Double> getRates() {
-        return rates;
+    public ExchangeRateResponse(String result, String errorType, String baseCode,
+            long lastUpdateUnix, long nextUpdateUnix, RateTable rates) {
+        this.result = result;
+        this.errorType = errorType;
+        this.baseCode = baseCode;
+        this.lastUpdateUnix = lastUpdateUnix;
+        this.nextUpdateUnix = nextUpdateUnix;
+        this.rates = rates;
+        this.notModified = false;
     }
 
-    public void setRates(Map<String, Double> rates) {
-        this.rates = rates;
+    private ExchangeRateResponse() {
+        this.result = "success";
+        this.errorType = null;
+        this.baseCode = null;
+        this.lastUpdateUnix = 0;
+        this.nextUpdateUnix = 0;
+        this.rates = null;
+        this.notModified = true;
+    }
+
+    /**
+     * Response for a 304 revalidation: the caller's snapshot is still current
+     */
+    public static ExchangeRateResponse notModified() {
+        return new ExchangeRateResponse();
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public boolean isSuccess() {
+        return "success".equals(result) && rates != null;
+    }
+
+    /**
+     * Provider error code, e.g. "invalid-key" or "quota-reached"
+     */
+    public String getErrorType() {
+        return errorType;
+    }
+
+    public String getBaseCode() {
+        return baseCode;
+    }
+
+    /**
+     * Provider update time in seconds since the epoch, or 0 if absent
+     */
+    public long getLastUpdateUnix() {
+        return lastUpdateUnix;
+    }
+
+    /**
+     * Next scheduled provider update in seconds since the epoch, or 0 if absent
+     */
+    public long getNextUpdateUnix() {
+        return nextUpdateUnix;
+    }
+
+    public RateTable getRates() {
+        return rates;
     }
 }
@@ -4,22 +4,37 @@ import android.app.Application;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.room.InvalidationTracker;
 
 import com.example.currencyconverter.data.Resource;
-import com.example.currencyconverter.data.local.dao.CachedRateDao;
+import com.example.currencyconverter.data.history.RateHistoryStore;
+import com.example.currencyconverter.data.local.cache.RateMemoryCache;
 import com.example.currencyconverter.data.local.dao.FavoriteConversionDao;
+import com.example.currencyconverter.data.local.dao.RateSnapshotDao;
 import com.example.currencyconverter.data.local.database.AppDatabase;
-import com.example.currencyconverter.data.local.entity.CachedExchangeRate;
 import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.local.entity.RateSnapshot;
+import com.example.currencyconverter.data.local.file.RateSnapshotFile;
+import com.example.currencyconverter.data.local.paging.FavoritesPagingSource;
+import com.example.currencyconverter.data.remote.ConnectivityMonitor;
 import com.example.currencyconverter.data.remote.api.CurrencyApiService;
 import com.example.currencyconverter.data.remote.api.RetrofitClient;
 import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
-
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.RateChangeSet;
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.rates.RateTableCodec;
+import com.example.currencyconverter.data.repository.RepositoryScheduler.Priority;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -33,74 +48,363 @@ import retrofit2.Response;
  * - Remote data source (API)
  * - Local data source (Room Database)
  * - Cached exchange rates for offline support
+ * - Compressed rate history, appended whenever a snapshot changes
+ *
+ * Disk work goes through a {@link RepositoryScheduler}: lookups on a read
+ * pool, all writes on one writer thread, user-facing work first.
  */
 public class CurrencyRepository {
 
     private final FavoriteConversionDao favoriteDao;
-    private final CachedRateDao cachedRateDao;
+    private final RateSnapshotDao rateSnapshotDao;
     private final CurrencyApiService apiService;
-    private final LiveData<List<FavoriteConversion>> allFavorites;
-    private final ExecutorService executorService;
-
-    // Cache expiry: 1 hour
-    private static final long CACHE_EXPIRY_MS = 60 * 60 * 1000;
+    private final InvalidationTracker invalidationTracker;
+    private final RepositoryScheduler scheduler;
+    private final RateMemoryCache memoryCache;
+    private final RateSnapshotFile snapshotFile;
+    private final RateHistoryStore historyStore;
+    private final ConnectivityMonitor connectivity;
+    private final SingleFlight<String, CrossRateEngine> snapshotLoads = new SingleFlight<>();
+    private final MutableLiveData<RateChangeSet> rateChanges = new MutableLiveData<>();
+    private final MutableLiveData<CrossRateEngine> loadedCrossRates = new MutableLiveData<>();
+    private final FavoritesWriteBatcher favoritesBatcher;
+    private final FavoriteRevaluator favoriteRevaluator = new FavoriteRevaluator();
+    private final MutableLiveData<FavoriteRevaluator.Revaluation> favoriteRevaluations = new MutableLiveData<>();
+
+    // Fresh / stale / expired windows per base
+    private final FreshnessPolicy freshnessPolicy;
+
+    // Only this base is fetched and cached; every other pair is a cross rate
+    public static final String PIVOT_CURRENCY = "USD";
 
     public CurrencyRepository(Application application) {
+        this(application, FreshnessPolicy.defaults());
+    }
+
+    public CurrencyRepository(Application application, FreshnessPolicy freshnessPolicy) {
+        this.freshnessPolicy = freshnessPolicy;
         AppDatabase database = AppDatabase.getInstance(application);
         favoriteDao = database.favoriteConversionDao();
-        cachedRateDao = database.cachedRateDao();
-        apiService = RetrofitClient.getInstance().create(CurrencyApiService.class);
-        allFavorites = favoriteDao.getAllFavorites();
-        executorService = Executors.newSingleThreadExecutor();
+        rateSnapshotDao = database.rateSnapshotDao();
+        apiService = RetrofitClient.getInstance(application).create(CurrencyApiService.class);
+        invalidationTracker = database.getInvalidationTracker();
+        scheduler = new RepositoryScheduler();
+        // Favorites edits within a short window share one transaction and one invalidation
+        favoritesBatcher = new FavoritesWriteBatcher(
+                runs -> {
+                    database.runInTransaction(() -> applyFavoriteRuns(runs));
+                    reindexFavorites(runs);
+                },
+                task -> scheduler.write(Priority.USER, task));
+        // Stale snapshots stay in memory so they can be served while revalidating
+        memoryCache = RateMemoryCache.getInstance(freshnessPolicy.getMaxStaleMs());
+        snapshotFile = new RateSnapshotFile(new File(application.getFilesDir(), "rate_snapshots"));
+        historyStore = new RateHistoryStore(database.rateHistoryDao());
+        connectivity = ConnectivityMonitor.getInstance(application);
+
+        // Warm the memory cache so the first conversion after a cold start is instant
+        scheduler.read(Priority.BACKGROUND, () -> getCachedCrossRates(PIVOT_CURRENCY));
+
+        // Build the revaluation index once; on the write thread so no favorites batch interleaves
+        scheduler.write(Priority.BACKGROUND,
+                () -> publishRevaluation(favoriteRevaluator.setFavorites(favoriteDao.getAll())));
     }
 
     // Remote data source - API calls with offline-first strategy
     /**
-     * Fetch exchange rates with offline-first strategy
-     * 1. Check cache first
-     * 2. If cache valid, return cached data
-     * 3. If cache invalid/missing, fetch from API
-     * 4. Cache successful API responses
-     * 
+     * Fetch exchange rates with a stale-while-revalidate strategy
+     * 1. Check cache (memory, then disk) for the pivot snapshot first
+     * 2. Fresh: derive the requested base from it
+     * 3. Stale: emit it at once as {@link Resource#loading} with data, revalidate
+     *    in the background and emit the result as success
+     * 4. Expired or missing: fetch the pivot snapshot from API
+     * 5. Cache successful API responses
+     * See {@link FreshnessPolicy} for the windows.
+     *
+     * Any base currency is served from the same pivot snapshot through
+     * {@link CrossRateEngine}, so one network call covers every pair.
+     *
      * @param apiKey       API key for the service
      * @param baseCurrency Base currency code
-     * @return LiveData containing Resource with exchange rates map
+     * @return LiveData containing Resource with the rate table for the base
      */
-    public LiveData<Resource<Map<String, Double>>> getExchangeRates(String apiKey, String baseCurrency) {
-        MutableLiveData<Resource<Map<String, Double>>> result = new MutableLiveData<>();
+    public LiveData<Resource<RateTable>> getExchangeRates(String apiKey, String baseCurrency) {
+        MutableLiveData<Resource<RateTable>> result = new MutableLiveData<>();
 
         // Start with loading state
         result.setValue(Resource.loading(null));
 
         android.util.Log.d("CurrencyRepository", "Starting exchange rate fetch for: " + baseCurrency);
 
-        // Check cache on background thread
-        executorService.execute(() -> {
-            // Try to get all cached rates for this base currency
-            List<CachedExchangeRate> cachedRates = cachedRateDao.getRatesForBase(baseCurrency);
+        withCrossRates(apiKey, null, new RatesCallback() {
+            @Override
+            public void onStale(CrossRateEngine engine) {
+                RateTable rates = engine.getRatesFor(baseCurrency);
+                if (rates != null) {
+                    result.postValue(Resource.loading(rates));
+                }
+            }
 
-            // Check if we have valid cache
-            if (cachedRates != null && !cachedRates.isEmpty()) {
-                long age = System.currentTimeMillis() - cachedRates.get(0).getTimestamp();
-                android.util.Log.d("CurrencyRepository", "Cache found, age: " + age + "ms");
+            @Override
+            public void onSuccess(CrossRateEngine engine) {
+                postRatesFor(engine, baseCurrency, result);
+            }
+
+            @Override
+            public void onError(String message) {
+                result.postValue(Resource.error(message, null));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Fetch the whole cross-rate engine, e.g. to feed a
+     * {@link com.example.currencyconverter.data.rates.BatchConverter} for
+     * screens that show many conversions at once. Same cache and network
+     * strategy as {@link #getExchangeRates}.
+     */
+    public LiveData<Resource<CrossRateEngine>> getCrossRates(String apiKey) {
+        MutableLiveData<Resource<CrossRateEngine>> result = new MutableLiveData<>();
+        result.setValue(Resource.loading(null));
+
+        withCrossRates(apiKey, null, new RatesCallback() {
+            @Override
+            public void onStale(CrossRateEngine engine) {
+                result.postValue(Resource.loading(engine));
+            }
+
+            @Override
+            public void onSuccess(CrossRateEngine engine) {
+                result.postValue(Resource.success(engine));
+            }
+
+            @Override
+            public void onError(String message) {
+                result.postValue(Resource.error(message, null));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Cancellable variant of {@link #getExchangeRates}
+     * Same cache and network strategy; results arrive on the main thread
+     * through {@code listener} until the returned request is cancelled.
+     * A newer request from the same screen should cancel the older one.
+     */
+    public RateRequest<RateTable> requestExchangeRates(String apiKey, String baseCurrency,
+            RateRequest.Listener<RateTable> listener) {
+        RateRequest<RateTable> request = new RateRequest<>(listener);
+
+        withCrossRates(apiKey, request, new RatesCallback() {
+            @Override
+            public void onStale(CrossRateEngine engine) {
+                RateTable rates = engine.getRatesFor(baseCurrency);
+                if (rates != null) {
+                    request.deliverStale(rates);
+                }
+            }
+
+            @Override
+            public void onSuccess(CrossRateEngine engine) {
+                RateTable rates = engine.getRatesFor(baseCurrency);
+                if (rates != null) {
+                    request.deliverSuccess(rates);
+                } else {
+                    request.deliverError("Base currency not available: " + baseCurrency);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                request.deliverError(message);
+            }
+        });
+
+        return request;
+    }
+
+    /**
+     * Stale-while-revalidate callback: {@link #onStale} may come first with
+     * servable cached rates, then exactly one of onSuccess / onError
+     */
+    private interface RatesCallback extends SingleFlight.Callback<CrossRateEngine> {
+        void onStale(CrossRateEngine engine);
+    }
+
+    /**
+     * @param request Cancellation of the caller, or null if it cannot cancel
+     */
+    private void withCrossRates(String apiKey, RateRequest<?> request, RatesCallback callback) {
+        // L1 hit - answer immediately without touching disk or switching threads
+        CrossRateEngine cached = memoryCache.get(PIVOT_CURRENCY);
+        if (cached != null && serveCached(apiKey, request, cached, callback)) {
+            return;
+        }
+
+        scheduler.read(Priority.USER, () -> {
+            // Cancelled while queued - skip the disk read
+            if (request != null && request.isCancelled()) {
+                return;
+            }
+            CrossRateEngine stored = getCachedCrossRates(PIVOT_CURRENCY);
+            if (stored != null && serveCached(apiKey, request, stored, callback)) {
+                return;
+            }
+            // Expired or missing - the caller has to wait for the network
+            freshnessPolicy.getMetrics().record(FreshnessPolicy.Freshness.EXPIRED);
+            android.util.Log.d("CurrencyRepository", "No servable snapshot, " + freshnessPolicy.getMetrics());
+            joinSnapshotLoad(apiKey, request, callback);
+        });
+    }
+
+    /**
+     * Attach to any load already in flight for the pivot instead of starting another one
+     * A cancelled request detaches; a load nobody waits for skips its network call.
+     */
+    private void joinSnapshotLoad(String apiKey, RateRequest<?> request, RatesCallback callback) {
+        if (request != null && request.isCancelled()) {
+            return;
+        }
+        snapshotLoads.execute(PIVOT_CURRENCY,
+                done -> loadSnapshot(apiKey, PIVOT_CURRENCY, Priority.USER, done), callback);
+        if (request != null) {
+            request.setCancelHook(() -> snapshotLoads.detach(PIVOT_CURRENCY, callback));
+        }
+    }
+
+    /**
+     * Answer from a cached snapshot if the policy allows it
+     * A stale snapshot is handed out at once and revalidated; the refreshed
+     * rates (or the stale ones again if the refresh fails or the device is
+     * offline) complete the callback.
+     *
+     * @return false if the snapshot is expired and the caller must wait for the network
+     */
+    private boolean serveCached(String apiKey, RateRequest<?> request, CrossRateEngine engine,
+            RatesCallback callback) {
+        FreshnessPolicy.Freshness freshness = freshnessPolicy.classify(PIVOT_CURRENCY, engine.getTimestamp(),
+                System.currentTimeMillis());
+        if (freshness == FreshnessPolicy.Freshness.EXPIRED) {
+            return false;
+        }
+        freshnessPolicy.getMetrics().record(freshness);
+
+        if (freshness == FreshnessPolicy.Freshness.FRESH) {
+            callback.onSuccess(engine);
+            return true;
+        }
+
+        android.util.Log.d("CurrencyRepository", "Serving stale snapshot while revalidating, "
+                + freshnessPolicy.getMetrics());
+        callback.onStale(engine);
+        if (connectivity.isOnline()) {
+            joinSnapshotLoad(apiKey, request, callback);
+        } else {
+            callback.onSuccess(engine);
+        }
+        return true;
+    }
+
+    /**
+     * Fetch the latest snapshot for {@code baseCurrency} synchronously
+     * A snapshot that is still fresh is returned without a network call, so
+     * retrying a partially failed refresh only re-fetches the bases that failed.
+     * Shares the load with any request already in flight for the same base.
+     * Blocks, so it must only be called from a background thread (e.g. a Worker).
+     */
+    public Resource<RateTable> fetchLatestRatesSync(String apiKey, String baseCurrency) {
+        Resource<CrossRateEngine> engine = fetchCrossRatesSync(apiKey, baseCurrency);
+        // A stale fallback is fine for conversions but means this refresh failed
+        if (engine.isSuccess() && engine.getData() != null && isFresh(engine.getData())) {
+            return Resource.success(engine.getData().getPivot());
+        }
+        return Resource.error(engine.getMessage() != null ? engine.getMessage() : "Failed to retrieve rates", null);
+    }
+
+    /**
+     * Blocking variant of {@link #getCrossRates} for background jobs
+     */
+    public Resource<CrossRateEngine> fetchCrossRatesSync(String apiKey, String baseCurrency) {
+        AtomicReference<Resource<CrossRateEngine>> outcome = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        snapshotLoads.execute(baseCurrency, done -> loadSnapshot(apiKey, baseCurrency, Priority.BACKGROUND, done),
+                new SingleFlight.Callback<CrossRateEngine>() {
+                    @Override
+                    public void onSuccess(CrossRateEngine engine) {
+                        outcome.set(Resource.success(engine));
+                        latch.countDown();
+                    }
 
-                if (age < CACHE_EXPIRY_MS) {
-                    // Cache is valid, convert to Map
-                    Map<String, Double> ratesMap = new java.util.HashMap<>();
-                    for (CachedExchangeRate rate : cachedRates) {
-                        ratesMap.put(rate.getTargetCurrency(), rate.getRate());
+                    @Override
+                    public void onError(String message) {
+                        outcome.set(Resource.error(message, null));
+                        latch.countDown();
                     }
-                    android.util.Log.d("CurrencyRepository", "Using cached rates: " + ratesMap.size() + " currencies");
-                    result.postValue(Resource.success(ratesMap));
+                });
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Resource.error("Interrupted while fetching rates", null);
+        }
+        return outcome.get();
+    }
+
+    /**
+     * Single shared load of one base's snapshot: one cache read and, if needed,
+     * one API call and one cache write, whatever the number of waiting callers
+     */
+    private void loadSnapshot(String apiKey, String baseCurrency, Priority priority,
+            SingleFlight.Callback<CrossRateEngine> done) {
+        // Check Room cache on a read thread
+        scheduler.read(priority, () -> {
+            CrossRateEngine engine = getCachedCrossRates(baseCurrency);
+
+            // Check if we have fresh cache
+            if (engine != null) {
+                long age = System.currentTimeMillis() - engine.getTimestamp();
+                android.util.Log.d("CurrencyRepository", "Cache found, age: " + age + "ms");
+
+                if (isFresh(engine)) {
+                    done.onSuccess(engine);
                     return;
                 }
             }
 
-            android.util.Log.d("CurrencyRepository", "Cache invalid/missing, fetching from API");
+            // Offline: any local snapshot beats an error, and a request would only time out
+            if (!connectivity.isOnline()) {
+                if (engine != null) {
+                    android.util.Log.d("CurrencyRepository", "Offline, serving stale " + baseCurrency + " snapshot");
+                    done.onSuccess(engine);
+                } else {
+                    done.onError("No internet connection");
+                }
+                return;
+            }
+
+            // Every caller cancelled meanwhile - nobody wants the response
+            if (snapshotLoads.isAbandoned(baseCurrency)) {
+                android.util.Log.d("CurrencyRepository", "Load abandoned, skipping API call, " + snapshotLoads);
+                done.onError("Cancelled");
+                return;
+            }
+
+            android.util.Log.d("CurrencyRepository", "Cache invalid/missing, fetching from API, " + snapshotLoads);
 
-            // Cache invalid or missing, fetch from API
+            // Cache invalid or missing, fetch the snapshot from API
+            // With a local snapshot the request is a revalidation that may come back 304;
+            // its provider timestamp lets a 304 be matched to the snapshot actually held
             // Retrofit's enqueue is already async, no need for ExecutorService here
-            Call<ExchangeRateResponse> call = apiService.getExchangeRates(apiKey, baseCurrency);
+            CrossRateEngine stale = engine;
+            long staleProviderTimestamp = stale != null ? stale.getPivot().getProviderTimestamp() : 0;
+            Call<ExchangeRateResponse> call = apiService.getExchangeRates(apiKey, baseCurrency,
+                    staleProviderTimestamp != 0 ? staleProviderTimestamp : null);
 
             call.enqueue(new Callback<ExchangeRateResponse>() {
                 @Override
@@ -108,19 +412,25 @@ public class CurrencyRepository {
                     android.util.Log.d("CurrencyRepository", "API Response received. Success: "
                             + response.isSuccessful() + ", Code: " + response.code());
 
-                    if (response.isSuccessful() && response.body() != null && response.body().getRates() != null) {
-                        Map<String, Double> rates = response.body().getRates();
+                    if (response.isSuccessful() && response.body() != null && response.body().isNotModified()
+                            && stale != null) {
+                        // 304 - provider rates unchanged; keep the snapshot and only bump its freshness
+                        android.util.Log.d("CurrencyRepository", "Rates not modified");
+                        done.onSuccess(touchExchangeRates(stale.getPivot()));
+                    } else if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                        RateTable rates = response.body().getRates();
                         android.util.Log.d("CurrencyRepository", "Rates received: " + rates.size() + " currencies");
 
-                        // Cache the successful response
-                        cacheExchangeRates(baseCurrency, rates);
-
-                        // Return success
-                        result.postValue(Resource.success(rates));
+                        // Cache the successful response, then release every waiting caller
+                        done.onSuccess(cacheExchangeRates(stale != null ? stale.getPivot() : null, rates));
+                    } else if (response.body() != null && response.body().getErrorType() != null) {
+                        String errorMsg = "Failed to retrieve rates: " + response.body().getErrorType();
+                        android.util.Log.e("CurrencyRepository", errorMsg);
+                        failOrServeStale(done, stale, errorMsg);
                     } else {
                         String errorMsg = "Failed to retrieve rates. Code: " + response.code();
                         android.util.Log.e("CurrencyRepository", errorMsg);
-                        result.postValue(Resource.error(errorMsg, null));
+                        failOrServeStale(done, stale, errorMsg);
                     }
                 }
 
@@ -128,70 +438,384 @@ public class CurrencyRepository {
                 public void onFailure(Call<ExchangeRateResponse> call, Throwable t) {
                     String errorMsg = "API Error: " + t.getMessage();
                     android.util.Log.e("CurrencyRepository", errorMsg, t);
-                    result.postValue(Resource.error(errorMsg, null));
+                    failOrServeStale(done, stale, errorMsg);
                 }
             });
         });
+    }
 
-        return result;
+    /**
+     * A failed refresh falls back to the local snapshot, however old, so a
+     * flaky network never turns a convertible amount into an error
+     */
+    private static void failOrServeStale(SingleFlight.Callback<CrossRateEngine> done, CrossRateEngine stale,
+            String errorMsg) {
+        if (stale != null) {
+            android.util.Log.d("CurrencyRepository", "Refresh failed, serving stale snapshot");
+            done.onSuccess(stale);
+        } else {
+            done.onError(errorMsg);
+        }
+    }
+
+    /**
+     * Whether a snapshot should be refreshed: it is missing or past its
+     * fresh budget, and the device is online to refresh it
+     */
+    public boolean shouldRefresh(CrossRateEngine engine) {
+        return (engine == null || !isFresh(engine)) && connectivity.isOnline();
+    }
+
+    private boolean isFresh(CrossRateEngine engine) {
+        return freshnessPolicy.classify(engine.getPivotCurrency(), engine.getTimestamp(),
+                System.currentTimeMillis()) == FreshnessPolicy.Freshness.FRESH;
+    }
+
+    /**
+     * Fresh / stale / blocked request counts
+     */
+    public FreshnessPolicy.Metrics getFreshnessMetrics() {
+        return freshnessPolicy.getMetrics();
+    }
+
+    public ConnectivityMonitor getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * Rates that moved in each stored snapshot, for consumers that only care about "what changed"
+     * Not emitted when a refresh returns the same rates.
+     */
+    public LiveData<RateChangeSet> getRateChanges() {
+        return rateChanges;
+    }
+
+    /**
+     * Latest pivot cross rates held in memory, whatever their age
+     * Emitted whenever a snapshot is loaded from disk or the network, so
+     * screens can evaluate conversions locally without requesting rates.
+     */
+    public LiveData<CrossRateEngine> getLoadedCrossRates() {
+        return loadedCrossRates;
+    }
+
+    /**
+     * Current value of each saved favorite at the latest loaded rates
+     */
+    public FavoriteRevaluator getFavoriteRevaluator() {
+        return favoriteRevaluator;
+    }
+
+    /**
+     * Favorite pairs whose value moved, emitted after each snapshot or favorites change
+     * Values are read from {@link #getFavoriteRevaluator()}.
+     */
+    public LiveData<FavoriteRevaluator.Revaluation> getFavoriteRevaluations() {
+        return favoriteRevaluations;
+    }
+
+    /**
+     * History of every stored snapshot, read by {@link RateHistoryRepository}
+     */
+    public RateHistoryStore getHistoryStore() {
+        return historyStore;
+    }
+
+    /**
+     * Queue depth and wait times of the read pool and the writer
+     */
+    public RepositoryScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Counters for coalesced snapshot loads
+     */
+    public SingleFlight<String, CrossRateEngine> getSnapshotLoads() {
+        return snapshotLoads;
+    }
+
+    /**
+     * Derive the rates for one base from the pivot snapshot and post them
+     */
+    private void postRatesFor(CrossRateEngine engine, String baseCurrency,
+            MutableLiveData<Resource<RateTable>> result) {
+        RateTable rates = engine.getRatesFor(baseCurrency);
+        if (rates == null) {
+            result.postValue(Resource.error("Base currency not available: " + baseCurrency, null));
+            return;
+        }
+        android.util.Log.d("CurrencyRepository", "Using cross rates for " + baseCurrency
+                + ": " + rates.size() + " currencies");
+        result.postValue(Resource.success(rates));
+    }
+
+    /**
+     * Return cross rates for the cached snapshot of {@code baseCurrency}
+     * Lookup order:
+     * 1. Memory cache
+     * 2. Memory-mapped snapshot file (no SQLite open, no cursor)
+     * 3. Room snapshot row
+     * The result is promoted to the memory cache. Must be called on a background thread.
+     */
+    private CrossRateEngine getCachedCrossRates(String baseCurrency) {
+        CrossRateEngine engine = memoryCache.get(baseCurrency);
+        if (engine != null) {
+            return engine;
+        }
+
+        long start = System.nanoTime();
+        RateTable rates = snapshotFile.read(baseCurrency);
+        String source = "file";
+
+        if (rates == null) {
+            rates = readSnapshotFromRoom(baseCurrency);
+            source = "room";
+        }
+        if (rates == null) {
+            return null;
+        }
+
+        engine = new CrossRateEngine(rates);
+        publishCrossRates(baseCurrency, engine);
+        android.util.Log.d("CurrencyRepository", baseCurrency + " snapshot loaded from " + source + " in "
+                + (System.nanoTime() - start) / 1000 + "us");
+        return engine;
+    }
+
+    private void publishCrossRates(String baseCurrency, CrossRateEngine engine) {
+        memoryCache.put(baseCurrency, engine);
+        if (PIVOT_CURRENCY.equals(baseCurrency)) {
+            loadedCrossRates.postValue(engine);
+            publishRevaluation(favoriteRevaluator.revalue(engine));
+        }
+    }
+
+    /**
+     * Apply a committed favorites batch to the revaluation index, touching only its pairs
+     */
+    private void reindexFavorites(List<FavoritesWriteBatcher.Run> runs) {
+        for (FavoritesWriteBatcher.Run run : runs) {
+            switch (run.getKind()) {
+                case INSERT:
+                    publishRevaluation(favoriteRevaluator.add(run.getFavorites()));
+                    break;
+                case DELETE:
+                    List<Integer> ids = new ArrayList<>(run.getFavorites().size());
+                    for (FavoriteConversion favorite : run.getFavorites()) {
+                        ids.add(favorite.getId());
+                    }
+                    publishRevaluation(favoriteRevaluator.remove(ids));
+                    break;
+                case DELETE_BY_ID:
+                    publishRevaluation(favoriteRevaluator.remove(run.getIds()));
+                    break;
+                default:
+                    publishRevaluation(favoriteRevaluator.clear());
+                    break;
+            }
+        }
+    }
+
+    private void publishRevaluation(FavoriteRevaluator.Revaluation revaluation) {
+        if (!revaluation.isEmpty()) {
+            android.util.Log.d("CurrencyRepository", "Favorites revalued: " + revaluation);
+            favoriteRevaluations.postValue(revaluation);
+        }
+    }
+
+    private RateTable readSnapshotFromRoom(String baseCurrency) {
+        // One row fetch and one array decode
+        RateSnapshot snapshot = rateSnapshotDao.getSnapshot(baseCurrency);
+        if (snapshot == null) {
+            return null;
+        }
+
+        try {
+            return RateTableCodec.decode(snapshot.getRates(), snapshot.getBaseCurrency(),
+                    snapshot.getTimestamp(), snapshot.getProviderTimestamp());
+        } catch (RuntimeException e) {
+            android.util.Log.e("CurrencyRepository", "Discarding unreadable snapshot", e);
+            return null;
+        }
     }
 
+    // Below SQLite's 999 bound-variable limit
+    private static final int FAVORITE_IDS_PER_DELETE = 500;
+
+    // Favorites page size; a window of a few pages is kept in memory
+    private static final int FAVORITES_PAGE_SIZE = 50;
+
     // Local data source - Database operations
-    public LiveData<List<FavoriteConversion>> getAllFavorites() {
-        return allFavorites;
+    /**
+     * Favorites, newest first, paged by keyset on (timestamp, id)
+     * Only a window of {@code maxSize} rows around the scroll position is
+     * held, and a write reloads just that window.
+     */
+    public Pager<FavoritesPagingSource.Key, FavoriteConversion> getFavoritesPager() {
+        PagingConfig config = new PagingConfig(FAVORITES_PAGE_SIZE, FAVORITES_PAGE_SIZE, false,
+                FAVORITES_PAGE_SIZE * 2, FAVORITES_PAGE_SIZE * 6);
+        return new Pager<>(config, () -> new FavoritesPagingSource(favoriteDao, invalidationTracker,
+                task -> scheduler.read(Priority.USER, task)));
     }
 
+    // Favorites mutations are write-behind: applied in batches, see FavoritesWriteBatcher
     public void insertFavorite(FavoriteConversion favorite) {
-        executorService.execute(() -> favoriteDao.insert(favorite));
+        favoritesBatcher.insert(Collections.singletonList(favorite));
+    }
+
+    public void insertFavorites(List<FavoriteConversion> favorites) {
+        favoritesBatcher.insert(favorites);
     }
 
     public void deleteFavorite(FavoriteConversion favorite) {
-        executorService.execute(() -> favoriteDao.delete(favorite));
+        favoritesBatcher.delete(Collections.singletonList(favorite));
+    }
+
+    public void deleteFavorites(List<FavoriteConversion> favorites) {
+        favoritesBatcher.delete(favorites);
     }
 
     public void deleteFavoriteById(int id) {
-        executorService.execute(() -> favoriteDao.deleteById(id));
+        favoritesBatcher.deleteByIds(Collections.singletonList(id));
+    }
+
+    public void deleteFavoritesByIds(List<Integer> ids) {
+        favoritesBatcher.deleteByIds(ids);
+    }
+
+    public void clearFavorites() {
+        favoritesBatcher.clear();
+    }
+
+    // Runs inside the batch transaction on the write thread
+    private void applyFavoriteRuns(List<FavoritesWriteBatcher.Run> runs) {
+        for (FavoritesWriteBatcher.Run run : runs) {
+            switch (run.getKind()) {
+                case INSERT:
+                    List<Long> rowIds = favoriteDao.insertAll(run.getFavorites());
+                    // Give the entities their generated ids for the revaluation index
+                    for (int i = 0; i < rowIds.size(); i++) {
+                        run.getFavorites().get(i).setId(rowIds.get(i).intValue());
+                    }
+                    break;
+                case DELETE:
+                    favoriteDao.deleteAll(run.getFavorites());
+                    break;
+                case DELETE_BY_ID:
+                    List<Integer> ids = run.getIds();
+                    for (int from = 0; from < ids.size(); from += FAVORITE_IDS_PER_DELETE) {
+                        int to = Math.min(ids.size(), from + FAVORITE_IDS_PER_DELETE);
+                        favoriteDao.deleteByIds(ids.subList(from, to));
+                    }
+                    break;
+                default:
+                    favoriteDao.clear();
+                    break;
+            }
+        }
     }
 
     // Offline caching methods
-    public void cacheExchangeRates(String baseCurrency, Map<String, Double> rates) {
-        executorService.execute(() -> {
-            List<CachedExchangeRate> cachedRates = new ArrayList<>();
-            long timestamp = System.currentTimeMillis();
+    /**
+     * Cache a snapshot and return its cross rates
+     * The engine replaces any older memory cache entry immediately,
+     * so callers don't wait for the Room write.
+     */
+    public CrossRateEngine cacheExchangeRates(RateTable rates) {
+        return cacheExchangeRates(null, rates);
+    }
+
+    /**
+     * Cache a snapshot, diffing it against {@code previous} (or the stored snapshot if null)
+     * Identical rates only bump the stored timestamps; the rate vector is
+     * rewritten only when at least one rate moved, and the moves are
+     * published through {@link #getRateChanges()}.
+     */
+    private CrossRateEngine cacheExchangeRates(RateTable previous, RateTable rates) {
+        String baseCurrency = rates.getBaseCurrency();
+        long timestamp = rates.getTimestamp();
+        CrossRateEngine engine = new CrossRateEngine(rates);
+        publishCrossRates(baseCurrency, engine);
+
+        scheduler.write(Priority.BACKGROUND, () -> {
+            RateTable stored = previous != null ? previous : readStoredSnapshot(baseCurrency);
+            RateChangeSet changes = RateChangeSet.diff(stored, rates);
+            if (stored != null && changes.isEmpty()) {
+                android.util.Log.d("CurrencyRepository", baseCurrency + " rates unchanged, bumping freshness only");
+                bumpFreshness(baseCurrency, timestamp, rates.getProviderTimestamp());
+                return;
+            }
 
-            for (Map.Entry<String, Double> entry : rates.entrySet()) {
-                CachedExchangeRate rate = new CachedExchangeRate(
-                        baseCurrency,
-                        entry.getKey(),
-                        entry.getValue(),
-                        timestamp);
-                cachedRates.add(rate);
+            // Whole vector in one row and one statement
+            RateSnapshot snapshot = new RateSnapshot(
+                    baseCurrency,
+                    RateTableCodec.encode(rates),
+                    RateTableCodec.currencySetVersion(rates),
+                    rates.getProviderTimestamp(),
+                    0,
+                    timestamp);
+
+            // Drop the mirror first: a crash or failed write below must not
+            // leave a file older than Room for cold start to prefer
+            if (!snapshotFile.delete(baseCurrency)) {
+                android.util.Log.w("CurrencyRepository", "Failed to delete snapshot file for " + baseCurrency);
+            }
+            long generation = rateSnapshotDao.writeSnapshot(snapshot);
+
+            // Mirror to the mapped file read on cold start
+            try {
+                snapshotFile.write(rates, generation);
+            } catch (IOException e) {
+                android.util.Log.e("CurrencyRepository", "Failed to write snapshot file", e);
+                snapshotFile.delete(baseCurrency);
             }
 
-            cachedRateDao.insertRates(cachedRates);
+            // Only snapshots that moved become history points
+            historyStore.append(rates);
+
+            android.util.Log.d("CurrencyRepository", baseCurrency + " snapshot stored, " + changes);
+            rateChanges.postValue(changes);
         });
+        return engine;
     }
 
-    public Double getCachedRate(String baseCurrency, String targetCurrency) {
+    /**
+     * Mark an unchanged snapshot as freshly validated
+     * Updates only the timestamps in Room and the snapshot file; the rate vector is not rewritten.
+     */
+    private CrossRateEngine touchExchangeRates(RateTable rates) {
+        String baseCurrency = rates.getBaseCurrency();
+        long timestamp = System.currentTimeMillis();
+        CrossRateEngine engine = new CrossRateEngine(rates.withTimestamp(timestamp));
+        publishCrossRates(baseCurrency, engine);
+
+        scheduler.write(Priority.BACKGROUND, () -> bumpFreshness(baseCurrency, timestamp, rates.getProviderTimestamp()));
+        return engine;
+    }
+
+    private void bumpFreshness(String baseCurrency, long timestamp, long providerTimestamp) {
+        rateSnapshotDao.touch(baseCurrency, timestamp, providerTimestamp);
+        Long generation = rateSnapshotDao.getGeneration(baseCurrency);
         try {
-            CachedExchangeRate cached = cachedRateDao.getRate(baseCurrency, targetCurrency);
-            if (cached != null) {
-                // Check if cache is still valid
-                long age = System.currentTimeMillis() - cached.getTimestamp();
-                if (age < CACHE_EXPIRY_MS) {
-                    return cached.getRate();
-                }
+            if (generation != null) {
+                snapshotFile.touch(baseCurrency, generation, timestamp, providerTimestamp);
+            } else {
+                snapshotFile.delete(baseCurrency);
             }
-        } catch (Exception e) {
-            // Return null if any error
+        } catch (IOException e) {
+            android.util.Log.e("CurrencyRepository", "Failed to touch snapshot file", e);
+            snapshotFile.delete(baseCurrency);
         }
-        return null;
     }
 
-    public void cleanOldCache() {
-        executorService.execute(() -> {
-            long expiryTime = System.currentTimeMillis() - CACHE_EXPIRY_MS;
-            cachedRateDao.deleteOldRates(expiryTime);
-        });
+    /**
+     * Last persisted snapshot for a base, bypassing the memory cache
+     * The file is used only if it mirrors Room's current generation.
+     */
+    private RateTable readStoredSnapshot(String baseCurrency) {
+        Long generation = rateSnapshotDao.getGeneration(baseCurrency);
+        RateTable rates = generation != null ? snapshotFile.read(baseCurrency, generation) : null;
+        return rates != null ? rates : readSnapshotFromRoom(baseCurrency);
     }
 }
@@ -0,0 +1,456 @@
+package com.example.currencyconverter.data.repository;
+
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.money.CurrencyUnits;
+import com.example.currencyconverter.data.money.Money;
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateChangeSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Current value of every saved favorite at the latest rates
+ *
+ * Favorites are indexed by currency pair, and each pair by the currencies it
+ * touches. When a snapshot lands only the pairs with a currency that moved
+ * are recomputed: one cross rate per pair, then one multiply per favorite
+ * over primitive arrays. The returned {@link Revaluation} names the pairs
+ * that changed, so the list rebinds just those rows.
+ *
+ * The index is built from the table once; saves and deletes then update
+ * only the pairs they touch. Rows with a missing currency are not indexed.
+ *
+ * Thread-safe; values are read on the main thread while snapshots land on
+ * repository threads.
+ */
+public final class FavoriteRevaluator {
+
+    /**
+     * Value of a favorite that is not indexed or has no rate yet
+     */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    // Side of a pair key for a missing currency code
+    private static final long NO_CURRENCY = 0xFFFFFFFFL;
+
+    /**
+     * Favorites of one currency pair, in parallel arrays sorted by id
+     * Arrays are replaced on add and remove, so edits cost O(pair size).
+     */
+    private static final class PairGroup {
+        final long pairKey;
+        final int from;
+        final int to;
+        final int fromDigits;
+        final int toDigits;
+        int[] ids = new int[0];
+        long[] amountMinor = new long[0];
+        long[] savedMinor = new long[0];
+        long[] currentMinor = new long[0];
+        // Formatted on first bind after each revaluation
+        String[] valueText = new String[0];
+        double rate = Double.NaN;
+        long stamp;
+
+        PairGroup(long pairKey, String fromCode, String toCode) {
+            this.pairKey = pairKey;
+            this.from = (int) (pairKey >>> 32);
+            this.to = (int) pairKey;
+            this.fromDigits = CurrencyUnits.digits(fromCode);
+            this.toDigits = CurrencyUnits.digits(toCode);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        /**
+         * Insert or replace a favorite, valued at the pair's last rate
+         */
+        void put(FavoriteConversion favorite) {
+            int i = Arrays.binarySearch(ids, favorite.getId());
+            if (i < 0) {
+                i = -i - 1;
+                ids = insertAt(ids, i, favorite.getId());
+                amountMinor = insertAt(amountMinor, i, 0);
+                savedMinor = insertAt(savedMinor, i, 0);
+                currentMinor = insertAt(currentMinor, i, UNKNOWN);
+                String[] text = new String[valueText.length + 1];
+                System.arraycopy(valueText, 0, text, 0, i);
+                System.arraycopy(valueText, i, text, i + 1, valueText.length - i);
+                valueText = text;
+            }
+            amountMinor[i] = favorite.getAmountMinor();
+            savedMinor[i] = favorite.getResultMinor();
+            currentMinor[i] = UNKNOWN;
+            valueText[i] = null;
+            value(i);
+        }
+
+        boolean remove(int id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i < 0) {
+                return false;
+            }
+            ids = removeAt(ids, i);
+            amountMinor = removeAt(amountMinor, i);
+            savedMinor = removeAt(savedMinor, i);
+            currentMinor = removeAt(currentMinor, i);
+            String[] text = new String[valueText.length - 1];
+            System.arraycopy(valueText, 0, text, 0, i);
+            System.arraycopy(valueText, i + 1, text, i, text.length - i);
+            valueText = text;
+            return true;
+        }
+
+        /**
+         * @return Whether the pair's rate changed
+         */
+        boolean revalue(CrossRateEngine engine) {
+            double newRate = engine.getRate(from, to);
+            if (Double.doubleToLongBits(newRate) == Double.doubleToLongBits(rate)) {
+                return false;
+            }
+            rate = newRate;
+            for (int i = 0; i < ids.length; i++) {
+                value(i);
+            }
+            return true;
+        }
+
+        private void value(int i) {
+            if (Double.isNaN(rate)) {
+                currentMinor[i] = UNKNOWN;
+                valueText[i] = null;
+                return;
+            }
+            try {
+                currentMinor[i] = Money.convert(amountMinor[i], fromDigits, toDigits, rate, Money.DEFAULT_ROUNDING);
+                valueText[i] = null;
+            } catch (ArithmeticException e) {
+                // Out of range at this rate: keep the last value rather than fail the whole batch
+                android.util.Log.w("FavoriteRevaluator", "Cannot revalue favorite " + ids[i] + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private final Map<Long, PairGroup> groups = new HashMap<>();
+    private final Map<Integer, Long> pairOfId = new HashMap<>();
+    // Groups touching each currency ordinal, as from or to
+    private final List<List<PairGroup>> groupsByOrdinal = new ArrayList<>();
+    private CrossRateEngine engine;
+    private long stamp;
+
+    /**
+     * Pair key of a favorite, shared by {@link Revaluation#contains} and {@link #getValueText}
+     * Equal keys mean equal currency codes; a missing code gets a side of its own.
+     */
+    public static long pairKey(String fromCurrency, String toCurrency) {
+        return (side(fromCurrency) << 32) | side(toCurrency);
+    }
+
+    private static long side(String currency) {
+        return currency != null ? CurrencyCodes.intern(currency) & 0xFFFFFFFFL : NO_CURRENCY;
+    }
+
+    /**
+     * Build the index from every saved favorite and value it at the last rates
+     * Called once; later edits go through {@link #add}, {@link #remove} and {@link #clear}.
+     *
+     * @return Every pair in the new index
+     */
+    public synchronized Revaluation setFavorites(List<FavoriteConversion> favorites) {
+        long start = System.nanoTime();
+        groups.clear();
+        pairOfId.clear();
+        groupsByOrdinal.clear();
+        return put(favorites, start);
+    }
+
+    /**
+     * Index newly saved favorites (or replace ones with the same id)
+     *
+     * @return The pairs the favorites were added to
+     */
+    public synchronized Revaluation add(List<FavoriteConversion> favorites) {
+        return put(favorites, System.nanoTime());
+    }
+
+    /**
+     * @return The pairs that lost a favorite
+     */
+    public synchronized Revaluation remove(List<Integer> ids) {
+        long start = System.nanoTime();
+        Set<Long> touched = new HashSet<>();
+        for (Integer id : ids) {
+            Long key = pairOfId.remove(id);
+            PairGroup group = key != null ? groups.get(key) : null;
+            if (group != null && group.remove(id)) {
+                touched.add(key);
+                if (group.size() == 0) {
+                    dropGroup(group);
+                }
+            }
+        }
+        return new Revaluation(sortedKeys(touched), 0, System.nanoTime() - start);
+    }
+
+    /**
+     * @return Every pair that was indexed
+     */
+    public synchronized Revaluation clear() {
+        long start = System.nanoTime();
+        long[] keys = sortedKeys(groups.keySet());
+        groups.clear();
+        pairOfId.clear();
+        groupsByOrdinal.clear();
+        return new Revaluation(keys, 0, System.nanoTime() - start);
+    }
+
+    private Revaluation put(List<FavoriteConversion> favorites, long start) {
+        Set<Long> touched = new HashSet<>();
+        int count = 0;
+        for (FavoriteConversion favorite : favorites) {
+            String from = favorite.getFromCurrency();
+            String to = favorite.getToCurrency();
+            if (from == null || to == null) {
+                // Nothing to convert between; the row just shows no current value
+                continue;
+            }
+            long key = pairKey(from, to);
+            Long previousKey = pairOfId.put(favorite.getId(), key);
+            if (previousKey != null && previousKey != key) {
+                PairGroup previous = groups.get(previousKey);
+                if (previous != null && previous.remove(favorite.getId()) && previous.size() == 0) {
+                    dropGroup(previous);
+                }
+                touched.add(previousKey);
+            }
+
+            PairGroup group = groups.get(key);
+            if (group == null) {
+                group = new PairGroup(key, from, to);
+                groups.put(key, group);
+                addByOrdinal(group.from, group);
+                if (group.to != group.from) {
+                    addByOrdinal(group.to, group);
+                }
+                if (engine != null) {
+                    group.rate = engine.getRate(group.from, group.to);
+                }
+            }
+            group.put(favorite);
+            touched.add(key);
+            count++;
+        }
+        return new Revaluation(sortedKeys(touched), count, System.nanoTime() - start);
+    }
+
+    /**
+     * Value the indexed favorites at a new snapshot, recomputing only pairs that moved
+     * Pairs are found from the currencies whose pivot rate changed since the
+     * last snapshot; a different pivot recomputes everything.
+     */
+    public synchronized Revaluation revalue(CrossRateEngine newEngine) {
+        long start = System.nanoTime();
+        CrossRateEngine previous = engine;
+        engine = newEngine;
+
+        List<PairGroup> moved = new ArrayList<>();
+        if (previous == null || !previous.getPivotCurrency().equals(newEngine.getPivotCurrency())) {
+            moved.addAll(groups.values());
+        } else {
+            RateChangeSet changes = RateChangeSet.diff(previous.getPivot(), newEngine.getPivot());
+            if (changes.isEmpty()) {
+                return new Revaluation(new long[0], 0, System.nanoTime() - start);
+            }
+            // A cross rate moves when either of its currencies moves against the pivot
+            long current = ++stamp;
+            for (int i = 0; i < changes.size(); i++) {
+                collect(changes.getOrdinal(i), current, moved);
+            }
+        }
+
+        List<Long> changed = new ArrayList<>(moved.size());
+        int count = 0;
+        for (PairGroup group : moved) {
+            if (group.revalue(newEngine)) {
+                changed.add(group.pairKey);
+                count += group.size();
+            }
+        }
+        return new Revaluation(sortedKeys(changed), count, System.nanoTime() - start);
+    }
+
+    /**
+     * Current value of a favorite in minor units of its target currency, or {@link #UNKNOWN}
+     */
+    public synchronized long getCurrentMinor(long pairKey, int id) {
+        PairGroup group = groups.get(pairKey);
+        if (group == null) {
+            return UNKNOWN;
+        }
+        int i = Arrays.binarySearch(group.ids, id);
+        return i >= 0 ? group.currentMinor[i] : UNKNOWN;
+    }
+
+    /**
+     * Current value and change since saving, e.g. "Now 93.10 EUR (+1.23%)", or null if unknown
+     * Formatted once per revaluation and reused by later binds.
+     */
+    public synchronized String getValueText(long pairKey, int id) {
+        PairGroup group = groups.get(pairKey);
+        if (group == null) {
+            return null;
+        }
+        int i = Arrays.binarySearch(group.ids, id);
+        if (i < 0 || group.currentMinor[i] == UNKNOWN) {
+            return null;
+        }
+        if (group.valueText[i] == null) {
+            group.valueText[i] = formatValue(group.currentMinor[i], group.savedMinor[i], group.toDigits,
+                    CurrencyCodes.codeOf(group.to));
+        }
+        return group.valueText[i];
+    }
+
+    static String formatValue(long currentMinor, long savedMinor, int digits, String currency) {
+        StringBuilder out = new StringBuilder(32).append("Now ");
+        Money.format(out, currentMinor, digits).append(' ').append(currency);
+        if (savedMinor != 0) {
+            // Change in hundredths of a percent, rounded half away from zero
+            long delta = currentMinor - savedMinor;
+            long basisPoints = Math.round(delta * 10000.0 / Math.abs(savedMinor));
+            out.append(" (").append(basisPoints < 0 ? '-' : '+');
+            Money.format(out, Math.abs(basisPoints), 2).append("%)");
+        }
+        return out.toString();
+    }
+
+    private void collect(int ordinal, long current, List<PairGroup> out) {
+        if (ordinal < 0 || ordinal >= groupsByOrdinal.size() || groupsByOrdinal.get(ordinal) == null) {
+            return;
+        }
+        for (PairGroup group : groupsByOrdinal.get(ordinal)) {
+            // A pair whose both currencies moved is collected once
+            if (group.stamp != current) {
+                group.stamp = current;
+                out.add(group);
+            }
+        }
+    }
+
+    private void addByOrdinal(int ordinal, PairGroup group) {
+        while (groupsByOrdinal.size() <= ordinal) {
+            groupsByOrdinal.add(null);
+        }
+        List<PairGroup> touching = groupsByOrdinal.get(ordinal);
+        if (touching == null) {
+            touching = new ArrayList<>(2);
+            groupsByOrdinal.set(ordinal, touching);
+        }
+        touching.add(group);
+    }
+
+    private void dropGroup(PairGroup group) {
+        groups.remove(group.pairKey);
+        groupsByOrdinal.get(group.from).remove(group);
+        if (group.to != group.from) {
+            groupsByOrdinal.get(group.to).remove(group);
+        }
+    }
+
+    private static int[] insertAt(int[] array, int index, int value) {
+        int[] grown = new int[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, index);
+        grown[index] = value;
+        System.arraycopy(array, index, grown, index + 1, array.length - index);
+        return grown;
+    }
+
+    private static long[] insertAt(long[] array, int index, long value) {
+        long[] grown = new long[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, index);
+        grown[index] = value;
+        System.arraycopy(array, index, grown, index + 1, array.length - index);
+        return grown;
+    }
+
+    private static int[] removeAt(int[] array, int index) {
+        int[] shrunk = new int[array.length - 1];
+        System.arraycopy(array, 0, shrunk, 0, index);
+        System.arraycopy(array, index + 1, shrunk, index, shrunk.length - index);
+        return shrunk;
+    }
+
+    private static long[] removeAt(long[] array, int index) {
+        long[] shrunk = new long[array.length - 1];
+        System.arraycopy(array, 0, shrunk, 0, index);
+        System.arraycopy(array, index + 1, shrunk, index, shrunk.length - index);
+        return shrunk;
+    }
+
+    private static long[] sortedKeys(Iterable<Long> keys) {
+        List<Long> list = new ArrayList<>();
+        for (Long key : keys) {
+            list.add(key);
+        }
+        long[] sorted = new long[list.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = list.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Pairs whose favorites changed value in one revaluation
+     */
+    public static final class Revaluation {
+        private final long[] pairKeys;
+        private final int favoriteCount;
+        private final long elapsedNs;
+
+        Revaluation(long[] pairKeys, int favoriteCount, long elapsedNs) {
+            this.pairKeys = pairKeys;
+            this.favoriteCount = favoriteCount;
+            this.elapsedNs = elapsedNs;
+        }
+
+        public boolean contains(long pairKey) {
+            return Arrays.binarySearch(pairKeys, pairKey) >= 0;
+        }
+
+        public boolean isEmpty() {
+            return pairKeys.length == 0;
+        }
+
+        public int getPairCount() {
+            return pairKeys.length;
+        }
+
+        /**
+         * Favorites whose value was recomputed
+         */
+        public int getFavoriteCount() {
+            return favoriteCount;
+        }
+
+        public long getElapsedMicros() {
+            return elapsedNs / 1000;
+        }
+
+        @Override
+        public String toString() {
+            return "Revaluation[pairs=" + pairKeys.length + ", favorites=" + favoriteCount + ", "
+                    + elapsedNs / 1000 + "us]";
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.currencyconverter.data.repository;
+
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind batching of favorites mutations
+ *
+ * Mutations are queued for a short window after the first one arrives and
+ * then applied together by one {@link Writer#apply} call, which the
+ * repository runs as a single transaction, so a burst of N edits costs one
+ * commit and one table invalidation instead of N.
+ * - Order is kept: consecutive mutations of the same kind become one bulk
+ *   statement, and kinds are applied in the order they were queued
+ * - A clear drops everything queued before it
+ * - A batch that reaches {@link #MAX_BATCH} mutations is flushed at once
+ * - One batch is in flight at a time: mutations queued while it runs are
+ *   taken only after it has committed, been requeued or been dropped
+ * - A batch whose transaction fails is queued again ahead of newer
+ *   mutations and retried, up to {@link #MAX_ATTEMPTS} times; a clear
+ *   queued meanwhile supersedes it
+ */
+public final class FavoritesWriteBatcher {
+
+    public static final long DEFAULT_WINDOW_MS = 50;
+    public static final int MAX_BATCH = 500;
+    // Tries per batch before it is dropped and counted as failed
+    public static final int MAX_ATTEMPTS = 3;
+
+    public enum Kind {
+        INSERT,
+        DELETE,
+        DELETE_BY_ID,
+        CLEAR
+    }
+
+    /**
+     * Applies one batch; called once per flush on the write executor
+     */
+    public interface Writer {
+        void apply(List<Run> runs);
+    }
+
+    /**
+     * Consecutive mutations of one kind, applied as one bulk statement
+     */
+    public static final class Run {
+        private final Kind kind;
+        private final List<FavoriteConversion> favorites = new ArrayList<>();
+        private final List<Integer> ids = new ArrayList<>();
+        // Failed applies of the batch this run leads
+        int attempts;
+
+        Run(Kind kind) {
+            this.kind = kind;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Favorites to insert or delete
+         */
+        public List<FavoriteConversion> getFavorites() {
+            return favorites;
+        }
+
+        /**
+         * Ids to delete for {@link Kind#DELETE_BY_ID}
+         */
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        int size() {
+            return kind == Kind.CLEAR ? 1 : favorites.size() + ids.size();
+        }
+    }
+
+    private final Writer writer;
+    private final Executor writeExecutor;
+    private final long windowMs;
+    private final ScheduledExecutorService timer;
+
+    private List<Run> pending = new ArrayList<>();
+    private int pendingCount;
+    private boolean flushScheduled;
+    // A batch was taken and has not committed, been requeued or been dropped yet
+    private boolean inFlight;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    public FavoritesWriteBatcher(Writer writer, Executor writeExecutor) {
+        this(writer, writeExecutor, DEFAULT_WINDOW_MS);
+    }
+
+    public FavoritesWriteBatcher(Writer writer, Executor writeExecutor, long windowMs) {
+        this.writer = writer;
+        this.writeExecutor = writeExecutor;
+        this.windowMs = windowMs;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "favorites-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        timer = executor;
+    }
+
+    public void insert(List<FavoriteConversion> favorites) {
+        synchronized (this) {
+            run(Kind.INSERT).favorites.addAll(favorites);
+            added(favorites.size());
+        }
+    }
+
+    public void delete(List<FavoriteConversion> favorites) {
+        synchronized (this) {
+            run(Kind.DELETE).favorites.addAll(favorites);
+            added(favorites.size());
+        }
+    }
+
+    public void deleteByIds(List<Integer> ids) {
+        synchronized (this) {
+            run(Kind.DELETE_BY_ID).ids.addAll(ids);
+            added(ids.size());
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            // Nothing queued before a clear can survive it
+            pending.clear();
+            pendingCount = 0;
+            run(Kind.CLEAR);
+            added(1);
+        }
+    }
+
+    /**
+     * Apply everything queued now instead of at the end of the window
+     * If a batch is in flight, the queue is applied as soon as it is done.
+     */
+    public void flush() {
+        List<Run> runs = takePending();
+        if (runs != null) {
+            writeExecutor.execute(() -> apply(runs));
+        }
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getMutationCount() {
+        return mutations.get();
+    }
+
+    /**
+     * Batches dropped after {@link #MAX_ATTEMPTS} failed transactions
+     */
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    public void shutdown() {
+        timer.shutdown();
+    }
+
+    private Run run(Kind kind) {
+        Run last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+        if (last != null && last.kind == kind) {
+            return last;
+        }
+        Run run = new Run(kind);
+        pending.add(run);
+        return run;
+    }
+
+    private void added(int count) {
+        pendingCount += count;
+        if (pendingCount >= MAX_BATCH) {
+            writeExecutor.execute(this::flushNow);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushNow() {
+        List<Run> runs = takePending();
+        if (runs != null) {
+            apply(runs);
+        }
+    }
+
+    private void onFailed(List<Run> runs, int count, RuntimeException e) {
+        int attempts = ++runs.get(0).attempts;
+        if (attempts >= MAX_ATTEMPTS) {
+            failedBatches.incrementAndGet();
+            android.util.Log.e("FavoritesWriteBatcher", "Dropping " + count + " mutations after " + attempts
+                    + " failed attempts", e);
+            finished();
+            return;
+        }
+        android.util.Log.w("FavoritesWriteBatcher", "Batch of " + count + " mutations failed, retrying", e);
+        requeue(runs, count);
+    }
+
+    /**
+     * Put a failed batch back ahead of anything queued since, and retry after a window
+     * Nothing newer can have been taken: the batch was still in flight.
+     */
+    private synchronized void requeue(List<Run> runs, int count) {
+        inFlight = false;
+        boolean cleared = false;
+        for (Run run : pending) {
+            if (run.kind == Kind.CLEAR) {
+                // A later clear supersedes the failed batch
+                cleared = true;
+                break;
+            }
+        }
+        if (!cleared) {
+            List<Run> merged = new ArrayList<>(runs);
+            merged.addAll(pending);
+            pending = merged;
+            pendingCount += count;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The in-flight batch committed or was dropped; apply what was queued meanwhile
+     */
+    private synchronized void finished() {
+        inFlight = false;
+        if (!pending.isEmpty() && !flushScheduled) {
+            // Their window ended while the batch was in flight
+            writeExecutor.execute(this::flushNow);
+        }
+    }
+
+    private synchronized List<Run> takePending() {
+        flushScheduled = false;
+        if (inFlight || pending.isEmpty()) {
+            return null;
+        }
+        List<Run> runs = pending;
+        pending = new ArrayList<>();
+        pendingCount = 0;
+        inFlight = true;
+        return runs;
+    }
+
+    private void apply(List<Run> runs) {
+        long start = System.nanoTime();
+        int count = 0;
+        for (Run run : runs) {
+            count += run.size();
+        }
+        try {
+            writer.apply(runs);
+        } catch (RuntimeException e) {
+            // The transaction rolled back; the batch is no longer queued anywhere else
+            onFailed(runs, count, e);
+            return;
+        }
+        batches.incrementAndGet();
+        mutations.addAndGet(count);
+        android.util.Log.d("FavoritesWriteBatcher", count + " mutations in " + runs.size() + " statements, "
+                + (System.nanoTime() - start) / 1000 + "us");
+        finished();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.currencyconverter.data.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How long a cached rate snapshot may be used, per base currency
+ *
+ * Three windows, measured from the snapshot timestamp:
+ * - FRESH:   younger than the fresh budget; served as is
+ * - STALE:   older than that but within the stale budget; served
+ *            immediately while a background revalidation runs
+ * - EXPIRED: beyond the stale budget; the caller waits for the network
+ *
+ * Immutable once built; the {@link Metrics} record how requests were served.
+ */
+public final class FreshnessPolicy {
+
+    public enum Freshness {
+        FRESH,
+        STALE,
+        EXPIRED
+    }
+
+    // Defaults: the provider updates about once a day
+    public static final long DEFAULT_FRESH_MS = 60 * 60 * 1000L;
+    public static final long DEFAULT_STALE_MS = 24 * 60 * 60 * 1000L;
+
+    private final Budget defaultBudget;
+    private final Map<String, Budget> budgets;
+    private final Metrics metrics = new Metrics();
+
+    private static final class Budget {
+        final long freshMs;
+        final long staleMs;
+
+        Budget(long freshMs, long staleMs) {
+            if (freshMs < 0 || staleMs < freshMs) {
+                throw new IllegalArgumentException("Need 0 <= fresh <= stale, got " + freshMs + ", " + staleMs);
+            }
+            this.freshMs = freshMs;
+            this.staleMs = staleMs;
+        }
+    }
+
+    private FreshnessPolicy(Builder builder) {
+        this.defaultBudget = builder.defaultBudget;
+        this.budgets = new HashMap<>(builder.budgets);
+    }
+
+    public static FreshnessPolicy defaults() {
+        return new Builder().build();
+    }
+
+    public Freshness classify(String baseCurrency, long timestamp, long now) {
+        Budget budget = budgetFor(baseCurrency);
+        long age = now - timestamp;
+        if (age < budget.freshMs) {
+            return Freshness.FRESH;
+        }
+        return age < budget.staleMs ? Freshness.STALE : Freshness.EXPIRED;
+    }
+
+    public long getFreshMs(String baseCurrency) {
+        return budgetFor(baseCurrency).freshMs;
+    }
+
+    public long getStaleMs(String baseCurrency) {
+        return budgetFor(baseCurrency).staleMs;
+    }
+
+    /**
+     * Longest stale budget of any base, e.g. the lifetime of in-memory snapshots
+     */
+    public long getMaxStaleMs() {
+        long max = defaultBudget.staleMs;
+        for (Budget budget : budgets.values()) {
+            max = Math.max(max, budget.staleMs);
+        }
+        return max;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private Budget budgetFor(String baseCurrency) {
+        Budget budget = budgets.get(baseCurrency);
+        return budget != null ? budget : defaultBudget;
+    }
+
+    public static final class Builder {
+        private Budget defaultBudget = new Budget(DEFAULT_FRESH_MS, DEFAULT_STALE_MS);
+        private final Map<String, Budget> budgets = new HashMap<>();
+
+        public Builder setDefault(long freshMs, long staleMs) {
+            defaultBudget = new Budget(freshMs, staleMs);
+            return this;
+        }
+
+        public Builder setBase(String baseCurrency, long freshMs, long staleMs) {
+            budgets.put(baseCurrency, new Budget(freshMs, staleMs));
+            return this;
+        }
+
+        public FreshnessPolicy build() {
+            return new FreshnessPolicy(this);
+        }
+    }
+
+    /**
+     * Counts of requests by how they were answered
+     * Fresh and stale requests were answered from cache; blocked ones waited for the network.
+     */
+    public static final class Metrics {
+        private final AtomicLong fresh = new AtomicLong();
+        private final AtomicLong stale = new AtomicLong();
+        private final AtomicLong blocked = new AtomicLong();
+
+        public void record(Freshness freshness) {
+            switch (freshness) {
+                case FRESH:
+                    fresh.incrementAndGet();
+                    break;
+                case STALE:
+                    stale.incrementAndGet();
+                    break;
+                default:
+                    blocked.incrementAndGet();
+                    break;
+            }
+        }
+
+        public long getFreshCount() {
+            return fresh.get();
+        }
+
+        public long getStaleCount() {
+            return stale.get();
+        }
+
+        public long getBlockedCount() {
+            return blocked.get();
+        }
+
+        /**
+         * Share of requests answered at cache speed (fresh or stale), 0 to 1
+         */
+        public double getCacheServedRatio() {
+            long total = fresh.get() + stale.get() + blocked.get();
+            return total > 0 ? (double) (fresh.get() + stale.get()) / total : 0;
+        }
+
+        @Override
+        public String toString() {
+            long f = fresh.get();
+            long s = stale.get();
+            long b = blocked.get();
+            long total = Math.max(1, f + s + b);
+            return "Freshness[fresh=" + f + " (" + f * 100 / total + "%), stale=" + s + " (" + s * 100 / total
+                    + "%), blocked=" + b + " (" + b * 100 / total + "%)]";
+        }
+    }
+}
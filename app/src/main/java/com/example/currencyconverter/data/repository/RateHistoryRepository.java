@@ -0,0 +1,104 @@
+package com.example.currencyconverter.data.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.currencyconverter.data.Resource;
+import com.example.currencyconverter.data.history.Downsampler;
+import com.example.currencyconverter.data.history.HistoryRange;
+import com.example.currencyconverter.data.history.RateHistoryStore;
+import com.example.currencyconverter.data.history.RateSeries;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Chart data source for exchange rate history
+ *
+ * Returns at most {@code maxPoints} points per request whatever the length of
+ * the stored history, so a chart never holds years of raw points:
+ * - Only the timestamps and the two currency columns of the pair are decoded
+ * - The series is reduced with {@link Downsampler#largestTriangleThreeBuckets}
+ * - Results are cached per (pair, range, maxPoints) until history is appended
+ * All work runs off the main thread.
+ */
+public class RateHistoryRepository {
+
+    private static final int MAX_CACHED_SERIES = 16;
+
+    private final RateHistoryStore historyStore;
+    private final ExecutorService executorService;
+
+    // Access-ordered for least-recently-used eviction
+    private final LinkedHashMap<String, CachedSeries> seriesCache =
+            new LinkedHashMap<String, CachedSeries>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedSeries> eldest) {
+                    return size() > MAX_CACHED_SERIES;
+                }
+            };
+
+    private static final class CachedSeries {
+        final RateSeries series;
+        final long modificationCount;
+
+        CachedSeries(RateSeries series, long modificationCount) {
+            this.series = series;
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    public RateHistoryRepository(RateHistoryStore historyStore) {
+        this.historyStore = historyStore;
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Downsampled history of {@code from} to {@code to} over {@code range}, ending now
+     *
+     * @param maxPoints Upper bound on returned points, e.g. the chart width in pixels
+     */
+    public LiveData<Resource<RateSeries>> getHistory(String from, String to, HistoryRange range, int maxPoints) {
+        MutableLiveData<Resource<RateSeries>> result = new MutableLiveData<>();
+        result.setValue(Resource.loading(null));
+
+        executorService.execute(() -> {
+            try {
+                result.postValue(Resource.success(getHistorySync(from, to, range, maxPoints)));
+            } catch (RuntimeException e) {
+                android.util.Log.e("RateHistoryRepository", "History query failed", e);
+                result.postValue(Resource.error("Could not load history: " + e.getMessage(), null));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Blocking variant of {@link #getHistory}; must be called on a background thread
+     */
+    public RateSeries getHistorySync(String from, String to, HistoryRange range, int maxPoints) {
+        String key = from + "/" + to + "/" + range + "/" + maxPoints;
+        long modificationCount = historyStore.getModificationCount();
+        synchronized (seriesCache) {
+            CachedSeries cached = seriesCache.get(key);
+            if (cached != null && cached.modificationCount == modificationCount) {
+                return cached.series;
+            }
+        }
+
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        RateSeries raw = historyStore.getSeries(CurrencyRepository.PIVOT_CURRENCY, from, to,
+                range.startFrom(now), now);
+        RateSeries series = Downsampler.largestTriangleThreeBuckets(raw, maxPoints);
+        android.util.Log.d("RateHistoryRepository", key + ": " + raw.size() + " -> " + series.size()
+                + " points in " + (System.nanoTime() - start) / 1000 + "us");
+
+        synchronized (seriesCache) {
+            seriesCache.put(key, new CachedSeries(series, modificationCount));
+        }
+        return series;
+    }
+}
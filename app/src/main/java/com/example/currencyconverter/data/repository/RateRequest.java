@@ -0,0 +1,116 @@
+package com.example.currencyconverter.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Handle to one asynchronous rate request, owned by whoever started it
+ *
+ * - Results are delivered on the main thread
+ * - {@link #cancel()} drops every result not yet delivered, checked on the
+ *   main thread right before delivery, so a cancelled request never reaches
+ *   its listener
+ * - Cancelling also releases upstream work that has not started yet: the
+ *   disk read is skipped and, if no other caller shares the load, so is the
+ *   network call
+ * Nothing holds the listener after completion or cancellation, so there is
+ * no observer to remove.
+ *
+ * @param <T> Result type
+ */
+public final class RateRequest<T> {
+
+    public interface Listener<T> {
+        /**
+         * Servable cached data while a revalidation runs; may not be called at all
+         */
+        void onStale(T data);
+
+        void onSuccess(T data);
+
+        void onError(String message);
+    }
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private Listener<T> listener;
+    private Runnable cancelHook;
+    private volatile boolean cancelled;
+
+    RateRequest(Listener<T> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Cancel the request; a no-op once it has completed
+     * Safe to call from any thread and more than once.
+     */
+    public void cancel() {
+        Runnable hook;
+        synchronized (this) {
+            if (cancelled || listener == null) {
+                return;
+            }
+            cancelled = true;
+            listener = null;
+            hook = cancelHook;
+            cancelHook = null;
+        }
+        if (hook != null) {
+            hook.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Register how to release upstream work on cancel; runs at once if already cancelled
+     */
+    void setCancelHook(Runnable hook) {
+        synchronized (this) {
+            if (!cancelled) {
+                cancelHook = hook;
+                return;
+            }
+        }
+        hook.run();
+    }
+
+    void deliverStale(T data) {
+        post(listener -> listener.onStale(data), false);
+    }
+
+    void deliverSuccess(T data) {
+        post(listener -> listener.onSuccess(data), true);
+    }
+
+    void deliverError(String message) {
+        post(listener -> listener.onError(message), true);
+    }
+
+    private interface Delivery<T> {
+        void deliver(Listener<T> listener);
+    }
+
+    private void post(Delivery<T> delivery, boolean last) {
+        if (cancelled) {
+            return;
+        }
+        MAIN.post(() -> {
+            Listener<T> target;
+            synchronized (this) {
+                target = listener;
+                if (last) {
+                    // Completed: drop the listener and the hook
+                    listener = null;
+                    cancelHook = null;
+                }
+            }
+            if (target != null && !cancelled) {
+                delivery.deliver(target);
+            }
+        });
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.currencyconverter.data.repository;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background scheduling for repository work
+ *
+ * - Reads run on a small concurrent pool (SQLite in WAL mode and the mapped
+ *   snapshot file both allow parallel readers)
+ * - Writes run on one thread, so they never race each other
+ * - Each side is a priority queue: {@link Priority#USER} work runs before
+ *   queued background work, FIFO within a priority
+ * Because reads and writes have separate threads, a user's cache lookup
+ * never waits behind a bulk snapshot write. Queue depth and wait time are
+ * tracked per side.
+ */
+public final class RepositoryScheduler {
+
+    public enum Priority {
+        // Someone is waiting on screen
+        USER,
+        // Refreshes and prefetches nobody is waiting on
+        BACKGROUND,
+        // Cleanup that can run whenever
+        MAINTENANCE
+    }
+
+    private final ThreadPoolExecutor readers;
+    private final ThreadPoolExecutor writer;
+    private final Stats readStats = new Stats();
+    private final Stats writeStats = new Stats();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RepositoryScheduler() {
+        this(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public RepositoryScheduler(int readThreads) {
+        // Core = max: a PriorityBlockingQueue is unbounded, so the pool never grows past core
+        readers = new ThreadPoolExecutor(readThreads, readThreads, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), threadFactory("repo-read"));
+        readers.allowCoreThreadTimeOut(true);
+        writer = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), threadFactory("repo-write"));
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    public void read(Priority priority, Runnable task) {
+        readers.execute(new Task(priority, sequence.getAndIncrement(), task, readStats));
+    }
+
+    public void write(Priority priority, Runnable task) {
+        writer.execute(new Task(priority, sequence.getAndIncrement(), task, writeStats));
+    }
+
+    public Stats getReadStats() {
+        return readStats;
+    }
+
+    public Stats getWriteStats() {
+        return writeStats;
+    }
+
+    public void shutdown() {
+        readers.shutdown();
+        writer.shutdown();
+    }
+
+    /**
+     * Blocks until queued work has run; for tests
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return readers.awaitTermination(timeout, unit)
+                && writer.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryScheduler[read=" + readStats + ", write=" + writeStats + "]";
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Task implements Runnable, Comparable<Task> {
+        final Priority priority;
+        final long sequence;
+        final Runnable body;
+        final Stats stats;
+        final long enqueuedAt;
+
+        Task(Priority priority, long sequence, Runnable body, Stats stats) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.body = body;
+            this.stats = stats;
+            this.enqueuedAt = System.nanoTime();
+            stats.onEnqueued();
+        }
+
+        @Override
+        public void run() {
+            stats.onStarted(priority, System.nanoTime() - enqueuedAt);
+            try {
+                body.run();
+            } catch (RuntimeException e) {
+                // One failed task must not take a pool thread with it
+                android.util.Log.e("RepositoryScheduler", "Task failed", e);
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Queue depth and queue wait time of one side, per priority
+     */
+    public static final class Stats {
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private final AtomicLong[] started = newCounters();
+        private final AtomicLong[] totalWaitNs = newCounters();
+        private final AtomicLong[] maxWaitNs = newCounters();
+
+        private static AtomicLong[] newCounters() {
+            AtomicLong[] counters = new AtomicLong[Priority.values().length];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new AtomicLong();
+            }
+            return counters;
+        }
+
+        void onEnqueued() {
+            int current = depth.incrementAndGet();
+            maxDepth.accumulateAndGet(current, Math::max);
+        }
+
+        void onStarted(Priority priority, long waitNs) {
+            depth.decrementAndGet();
+            int i = priority.ordinal();
+            started[i].incrementAndGet();
+            totalWaitNs[i].addAndGet(waitNs);
+            maxWaitNs[i].accumulateAndGet(waitNs, Math::max);
+        }
+
+        /**
+         * Tasks queued and not yet started
+         */
+        public int getQueueDepth() {
+            return depth.get();
+        }
+
+        public int getMaxQueueDepth() {
+            return maxDepth.get();
+        }
+
+        public long getStartedCount(Priority priority) {
+            return started[priority.ordinal()].get();
+        }
+
+        public long getAverageWaitMicros(Priority priority) {
+            long count = started[priority.ordinal()].get();
+            return count > 0 ? totalWaitNs[priority.ordinal()].get() / count / 1000 : 0;
+        }
+
+        public long getMaxWaitMicros(Priority priority) {
+            return maxWaitNs[priority.ordinal()].get() / 1000;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder("[depth=").append(depth.get())
+                    .append(", maxDepth=").append(maxDepth.get());
+            for (Priority priority : Priority.values()) {
+                if (getStartedCount(priority) > 0) {
+                    out.append(", ").append(priority.name().toLowerCase()).append("=")
+                            .append(getStartedCount(priority)).append(" avg ")
+                            .append(getAverageWaitMicros(priority)).append("us max ")
+                            .append(getMaxWaitMicros(priority)).append("us");
+                }
+            }
+            return out.append("]").toString();
+        }
+    }
+}
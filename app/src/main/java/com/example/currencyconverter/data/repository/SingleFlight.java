@@ -0,0 +1,137 @@
+package com.example.currencyconverter.data.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request coalescing ("single flight") keyed by an arbitrary key
+ *
+ * The first caller for a key becomes the leader and starts the load.
+ * Callers arriving while that load is in flight are attached to it and
+ * receive the same result, so N concurrent requests cost one load.
+ * Callers can {@link #detach} when they no longer want the result; a load
+ * whose callers have all detached is abandoned, which the loader can check
+ * with {@link #isAbandoned} before starting expensive work.
+ *
+ * @param <K> Key type, e.g. base currency
+ * @param <V> Result type
+ */
+public final class SingleFlight<K, V> {
+
+    public interface Callback<V> {
+        void onSuccess(V value);
+
+        void onError(String message);
+    }
+
+    /**
+     * Performs the shared load and reports exactly once to {@code done}
+     */
+    public interface Loader<V> {
+        void load(Callback<V> done);
+    }
+
+    private final Map<K, List<Callback<V>>> inFlight = new HashMap<>();
+
+    private long executionCount;
+    private long coalescedCount;
+    private long detachedCount;
+
+    public void execute(K key, Loader<V> loader, Callback<V> callback) {
+        synchronized (this) {
+            List<Callback<V>> waiters = inFlight.get(key);
+            if (waiters != null) {
+                waiters.add(callback);
+                coalescedCount++;
+                return;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlight.put(key, waiters);
+            executionCount++;
+        }
+
+        Callback<V> done = new Callback<V>() {
+            @Override
+            public void onSuccess(V value) {
+                for (Callback<V> waiter : complete(key)) {
+                    waiter.onSuccess(value);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                for (Callback<V> waiter : complete(key)) {
+                    waiter.onError(message);
+                }
+            }
+        };
+
+        try {
+            loader.load(done);
+        } catch (RuntimeException e) {
+            done.onError("Error: " + e.getMessage());
+        }
+    }
+
+    private synchronized List<Callback<V>> complete(K key) {
+        List<Callback<V>> waiters = inFlight.remove(key);
+        return waiters != null ? waiters : new ArrayList<>();
+    }
+
+    public synchronized boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    /**
+     * Stop delivering the in-flight result for {@code key} to {@code callback}
+     *
+     * @return false if the callback was not waiting (e.g. the load already completed)
+     */
+    public synchronized boolean detach(K key, Callback<V> callback) {
+        List<Callback<V>> waiters = inFlight.get(key);
+        if (waiters == null || !waiters.remove(callback)) {
+            return false;
+        }
+        detachedCount++;
+        return true;
+    }
+
+    /**
+     * Whether a load for {@code key} is in flight with no caller left to receive it
+     * The loader must still report to its {@code done} callback to end the flight.
+     */
+    public synchronized boolean isAbandoned(K key) {
+        List<Callback<V>> waiters = inFlight.get(key);
+        return waiters != null && waiters.isEmpty();
+    }
+
+    /**
+     * Number of loads actually started
+     */
+    public synchronized long getExecutionCount() {
+        return executionCount;
+    }
+
+    /**
+     * Number of calls that attached to a load already in flight
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Number of callers that detached before their load completed
+     */
+    public synchronized long getDetachedCount() {
+        return detachedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SingleFlight[executions=" + executionCount + ", coalesced=" + coalescedCount
+                + ", detached=" + detachedCount + ", inFlight=" + inFlight.size() + "]";
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.currencyconverter.di;
 
+import android.content.Context;
+import com.example.currencyconverter.data.remote.ConnectivityMonitor;
 import com.example.currencyconverter.data.remote.api.CurrencyApiService;
 import com.example.currencyconverter.data.remote.api.RetrofitClient;
 import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
+import dagger.hilt.android.qualifiers.ApplicationContext;
 import dagger.hilt.components.SingletonComponent;
 import javax.inject.Singleton;
 import retrofit2.Retrofit;
@@ -13,7 +16,7 @@ import retrofit2.Retrofit;
  * Hilt Module for Network dependencies
  * 2nd Semester - Week 6: Dependency Injection
  * 
- * Provides Retrofit and API service instances
+ * Provides Retrofit, API service and connectivity instances
  */
 @Module
 @InstallIn(SingletonComponent.class)
@@ -21,8 +24,8 @@ public class NetworkModule {
 
     @Provides
     @Singleton
-    public Retrofit provideRetrofit() {
-        return RetrofitClient.getInstance();
+    public Retrofit provideRetrofit(@ApplicationContext Context context) {
+        return RetrofitClient.getInstance(context);
     }
 
     @Provides
@@ -30,4 +33,10 @@ public class NetworkModule {
     public CurrencyApiService provideCurrencyApiService(Retrofit retrofit) {
         return retrofit.create(CurrencyApiService.class);
     }
+
+    @Provides
+    @Singleton
+    public ConnectivityMonitor provideConnectivityMonitor(@ApplicationContext Context context) {
+        return ConnectivityMonitor.getInstance(context);
+    }
 }
@@ -2,6 +2,8 @@ package com.example.currencyconverter.di;
 
 import android.app.Application;
 import com.example.currencyconverter.data.repository.CurrencyRepository;
+import com.example.currencyconverter.data.repository.FreshnessPolicy;
+import com.example.currencyconverter.data.repository.RateHistoryRepository;
 import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
@@ -12,7 +14,8 @@ import javax.inject.Singleton;
  * Hilt Module for Repository
  * 2nd Semester - Week 6: Dependency Injection
  * 
- * Provides singleton instance of CurrencyRepository
+ * Provides singleton instances of CurrencyRepository and RateHistoryRepository,
+ * and the rate freshness policy the repository serves cached snapshots by
  */
 @Module
 @InstallIn(SingletonComponent.class)
@@ -20,7 +23,22 @@ public class RepositoryModule {
 
     @Provides
     @Singleton
-    public CurrencyRepository provideCurrencyRepository(Application application) {
-        return new CurrencyRepository(application);
+    public FreshnessPolicy provideFreshnessPolicy() {
+        // Fresh for an hour, then served stale while revalidating for up to a day
+        return new FreshnessPolicy.Builder()
+                .setDefault(FreshnessPolicy.DEFAULT_FRESH_MS, FreshnessPolicy.DEFAULT_STALE_MS)
+                .build();
+    }
+
+    @Provides
+    @Singleton
+    public CurrencyRepository provideCurrencyRepository(Application application, FreshnessPolicy freshnessPolicy) {
+        return new CurrencyRepository(application, freshnessPolicy);
+    }
+
+    @Provides
+    @Singleton
+    public RateHistoryRepository provideRateHistoryRepository(CurrencyRepository currencyRepository) {
+        return new RateHistoryRepository(currencyRepository.getHistoryStore());
     }
 }
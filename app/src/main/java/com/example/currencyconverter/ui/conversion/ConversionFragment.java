@@ -1,9 +1,12 @@
 package com.example.currencyconverter.ui.conversion;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Toast;
 
@@ -136,8 +139,11 @@ public class ConversionFragment extends Fragment {
 
     /**
      * CRITICAL: Single observer for UiState
-     * This is the ONLY place where UI updates happen
+     * This is the ONLY place where the Convert result and its controls are updated
      * NO business logic here - just UI updates based on state
+     *
+     * The live result has its own view and its own observer, so each view has
+     * exactly one writer and re-delivery after rotation restores both as they were.
      */
     private void setupObservers() {
         viewModel.uiState.observe(getViewLifecycleOwner(), state -> {
@@ -165,6 +171,9 @@ public class ConversionFragment extends Fragment {
                 binding.buttonConvert.setEnabled(true);
             }
         });
+
+        // Live result while typing - already formatted by the ViewModel, shown in its own view
+        viewModel.liveResult.observe(getViewLifecycleOwner(), result -> binding.textViewLiveResult.setText(result));
     }
 
     /**
@@ -181,6 +190,34 @@ public class ConversionFragment extends Fragment {
                     binding.editTextAmount.getText().toString());
         });
 
+        // Live conversion - every edit and spinner change passes the RAW input to ViewModel
+        binding.editTextAmount.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                onLiveInputChanged();
+            }
+        });
+        AdapterView.OnItemSelectedListener spinnerListener = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                onLiveInputChanged();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        };
+        binding.spinnerFrom.setOnItemSelectedListener(spinnerListener);
+        binding.spinnerTo.setOnItemSelectedListener(spinnerListener);
+
         // Save favorite button
         binding.buttonSaveFavorite.setOnClickListener(v -> saveFavorite());
 
@@ -194,6 +231,13 @@ public class ConversionFragment extends Fragment {
         });
     }
 
+    private void onLiveInputChanged() {
+        viewModel.onInputChanged(
+                binding.spinnerFrom.getSelectedItem().toString(),
+                binding.spinnerTo.getSelectedItem().toString(),
+                binding.editTextAmount.getText().toString());
+    }
+
     /**
      * Save current conversion as favorite
      * Simple data passing, no business logic
@@ -209,8 +253,8 @@ public class ConversionFragment extends Fragment {
         FavoriteConversion favorite = new FavoriteConversion(
                 data.fromCurrency,
                 data.toCurrency,
-                data.amount,
-                data.result,
+                data.amountMinor,
+                data.resultMinor,
                 System.currentTimeMillis());
 
         favoritesViewModel.insertFavorite(favorite);
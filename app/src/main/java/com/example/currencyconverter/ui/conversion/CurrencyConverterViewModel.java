@@ -2,20 +2,31 @@ package com.example.currencyconverter.ui.conversion;
 
 import android.app.Application;
 import android.content.Context;
-import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.text.format.DateUtils;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
-import com.example.currencyconverter.data.Resource;
+import com.example.currencyconverter.data.money.CurrencyUnits;
+import com.example.currencyconverter.data.money.Money;
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateTable;
 import com.example.currencyconverter.data.repository.CurrencyRepository;
+import com.example.currencyconverter.data.repository.RateRequest;
 import com.example.currencyconverter.ui.common.UiState;
 
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import dagger.hilt.android.lifecycle.HiltViewModel;
@@ -29,10 +40,10 @@ import dagger.hilt.android.qualifiers.ApplicationContext;
  * - Input validation
  * - String parsing
  * - Same currency check
- * - Network availability check
- * - API orchestration
+ * - Cache-first orchestration (local rates first, network only to refresh)
  * - Result formatting
  * - Error handling
+ * - Live conversion while typing (see {@link #onInputChanged})
  * 
  * Fragment is DUMB - it only:
  * - Passes raw input to ViewModel
@@ -51,17 +62,42 @@ public class CurrencyConverterViewModel extends ViewModel {
     private final MutableLiveData<UiState> _uiState = new MutableLiveData<>(new UiState.Idle());
     public final LiveData<UiState> uiState = _uiState;
 
+    // Cold-start latency is logged once per process
+    private static boolean firstResultLogged;
+
+    // Live conversion: evaluated against rates already in memory, never the network
+    private static final long FRAME_MS = 16;
+    private final MutableLiveData<String> _liveResult = new MutableLiveData<>("");
+    public final LiveData<String> liveResult = _liveResult;
+    private final ExecutorService liveExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped on every input change; evaluations of an older generation are dropped
+    private final AtomicLong liveGeneration = new AtomicLong();
+    private final Observer<CrossRateEngine> liveRatesObserver = this::onLiveRatesLoaded;
+    private volatile CrossRateEngine liveRates;
+    private String liveFrom;
+    private String liveTo;
+    private String liveAmount;
+    private long liveInputTime;
+    // An evaluation is on the live executor; newer input waits for it
+    private boolean liveInFlight;
+    private boolean livePending;
+
+    // Explicit conversion in progress; cancelled when superseded or cleared
+    private RateRequest<RateTable> activeConversion;
+
     // Current conversion data for favorites
     private String currentFromCurrency;
     private String currentToCurrency;
-    private double currentAmount;
-    private double currentResult;
+    private long currentAmountMinor;
+    private long currentResultMinor;
 
     // Constructor with Hilt dependency injection
     @Inject
     public CurrencyConverterViewModel(@ApplicationContext Context application, CurrencyRepository repository) {
         this.application = application;
         this.repository = repository;
+        repository.getLoadedCrossRates().observeForever(liveRatesObserver);
     }
 
     /**
@@ -73,23 +109,29 @@ public class CurrencyConverterViewModel extends ViewModel {
      * @param amountStr    Raw string from EditText
      */
     public void onConvertClicked(String fromCurrency, String toCurrency, String amountStr) {
+        // Whatever this tap leads to, the previous conversion is outdated
+        cancelActiveConversion();
+
         // 1. VALIDATION - Check for empty input
         if (amountStr == null || amountStr.trim().isEmpty()) {
             _uiState.setValue(new UiState.Error("Please enter an amount"));
             return;
         }
 
-        // 2. PARSING - Convert String to Double
-        double amount;
+        // 2. PARSING - Straight to fixed-point minor units of the source currency
+        long amountMinor;
         try {
-            amount = Double.parseDouble(amountStr.trim());
+            amountMinor = Money.parse(amountStr, CurrencyUnits.digits(fromCurrency), Money.DEFAULT_ROUNDING);
         } catch (NumberFormatException e) {
             _uiState.setValue(new UiState.Error("Invalid amount"));
             return;
+        } catch (ArithmeticException e) {
+            _uiState.setValue(new UiState.Error("Amount is too large"));
+            return;
         }
 
         // 3. VALIDATION - Check if amount is positive
-        if (amount <= 0) {
+        if (amountMinor <= 0) {
             _uiState.setValue(new UiState.Error("Amount must be greater than 0"));
             return;
         }
@@ -101,93 +143,282 @@ public class CurrencyConverterViewModel extends ViewModel {
             return;
         }
 
-        // 5. NETWORK CHECK
-        if (!isNetworkAvailable()) {
-            _uiState.setValue(new UiState.Error("No internet connection"));
-            return;
-        }
-
-        // 6. ALL VALIDATIONS PASSED - Perform conversion
-        performConversion(fromCurrency, toCurrency, amount);
+        // 5. ALL VALIDATIONS PASSED - Perform conversion
+        // No connectivity gate: local rates are served first, the network only refreshes them
+        performConversion(fromCurrency, toCurrency, amountMinor);
     }
 
     /**
-     * Perform the actual currency conversion
-     * Observes Repository LiveData and updates UI state
+     * Perform the actual currency conversion, cache first, as a cancellable request
+     * 1. The snapshot already in memory answers immediately, whatever its age
+     * 2. Only if it is stale (or missing) and the device is online, the
+     *    repository is asked for fresh rates; the answer on screen is
+     *    replaced when they arrive
+     * A failed refresh keeps the local answer instead of showing an error.
      */
-    private void performConversion(String fromCurrency, String toCurrency, double amount) {
+    private void performConversion(String fromCurrency, String toCurrency, long amountMinor) {
         // Store current conversion data
         currentFromCurrency = fromCurrency;
         currentToCurrency = toCurrency;
-        currentAmount = amount;
-
-        // Set loading state
-        _uiState.setValue(new UiState.Loading());
-
-        android.util.Log.d("CurrencyViewModel",
-                "Starting conversion: " + amount + " " + fromCurrency + " -> " + toCurrency);
-
-        // Get LiveData from Repository
-        LiveData<Resource<Map<String, Double>>> ratesLiveData = repository.getExchangeRates(API_KEY, fromCurrency);
-
-        // Observe the LiveData directly and update UI state
-        ratesLiveData.observeForever(new androidx.lifecycle.Observer<Resource<Map<String, Double>>>() {
-            @Override
-            public void onChanged(Resource<Map<String, Double>> resource) {
-                if (resource != null) {
-                    android.util.Log.d("CurrencyViewModel", "Resource received: " + resource.getStatus());
-
-                    if (resource.isSuccess() && resource.getData() != null) {
-                        // Success - perform conversion
-                        Map<String, Double> rates = resource.getData();
-                        android.util.Log.d("CurrencyViewModel", "Success! Rates size: " + rates.size());
-
-                        if (rates.containsKey(toCurrency)) {
-                            currentResult = rates.get(toCurrency) * amount;
-                            String result = String.format("%.2f %s = %.2f %s",
-                                    amount, fromCurrency, currentResult, toCurrency);
-                            android.util.Log.d("CurrencyViewModel", "Conversion result: " + result);
-                            _uiState.setValue(new UiState.Success(result));
-                        } else {
-                            android.util.Log.e("CurrencyViewModel", "Target currency not found: " + toCurrency);
-                            _uiState.setValue(new UiState.Error("Target currency not available"));
-                        }
+        currentAmountMinor = amountMinor;
 
-                        // Remove observer after success
-                        ratesLiveData.removeObserver(this);
+        android.util.Log.d("CurrencyViewModel", "Starting conversion: "
+                + Money.format(amountMinor, fromCurrency) + " " + fromCurrency + " -> " + toCurrency);
+        long requestStart = SystemClock.elapsedRealtime();
 
-                    } else if (resource.isError()) {
-                        // Error - show error message
-                        android.util.Log.e("CurrencyViewModel", "Error: " + resource.getMessage());
-                        _uiState.setValue(new UiState.Error(resource.getMessage()));
+        CrossRateEngine local = liveRates;
+        if (local != null) {
+            showConversion(local.getRatesFor(fromCurrency), fromCurrency, toCurrency, amountMinor, requestStart);
+            if (!repository.shouldRefresh(local)) {
+                return;
+            }
+            android.util.Log.d("CurrencyViewModel", "Local snapshot is stale, refreshing");
+        } else {
+            // Nothing local yet - this is the only case that waits
+            _uiState.setValue(new UiState.Loading());
+        }
 
-                        // Remove observer after error
-                        ratesLiveData.removeObserver(this);
+        // Newer request supersedes the older one: cancel it and drop its results
+        activeConversion = repository.requestExchangeRates(API_KEY, fromCurrency,
+                new RateRequest.Listener<RateTable>() {
+                    @Override
+                    public void onStale(RateTable rates) {
+                        // Stale rates while revalidating - only useful if nothing is on screen yet
+                        if (local == null) {
+                            showConversion(rates, fromCurrency, toCurrency, amountMinor, requestStart);
+                        }
                     }
-                    // If loading, keep observing
-                }
-            }
+
+                    @Override
+                    public void onSuccess(RateTable rates) {
+                        showConversion(rates, fromCurrency, toCurrency, amountMinor, requestStart);
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        android.util.Log.e("CurrencyViewModel", "Error: " + message);
+                        // Keep the local answer if one is on screen
+                        if (local == null) {
+                            _uiState.setValue(new UiState.Error(message));
+                        }
+                    }
+                });
+    }
+
+    private void cancelActiveConversion() {
+        if (activeConversion != null) {
+            activeConversion.cancel();
+            activeConversion = null;
+        }
+    }
+
+    /**
+     * Convert with {@code rates} (based on {@code fromCurrency}) and show the result with the rates' age
+     */
+    private void showConversion(RateTable rates, String fromCurrency, String toCurrency, long amountMinor,
+            long requestStart) {
+        // No rates based on the source currency means the snapshot lacks the source itself
+        if (rates == null) {
+            android.util.Log.e("CurrencyViewModel", "Source currency not found: " + fromCurrency);
+            _uiState.setValue(new UiState.Error("Source currency not available"));
+            return;
+        }
+        int toOrdinal = CurrencyCodes.ordinalOf(toCurrency);
+        if (!rates.contains(toOrdinal)) {
+            android.util.Log.e("CurrencyViewModel", "Target currency not found: " + toCurrency);
+            _uiState.setValue(new UiState.Error("Target currency not available"));
+            return;
+        }
+
+        // The amount fits in minor units, but its value in a high-rate target may not
+        try {
+            currentResultMinor = Money.convert(amountMinor, fromCurrency, toCurrency,
+                    rates.getRate(toOrdinal), Money.DEFAULT_ROUNDING);
+        } catch (ArithmeticException e) {
+            android.util.Log.e("CurrencyViewModel", "Result out of range: " + fromCurrency + " -> " + toCurrency);
+            _uiState.setValue(new UiState.Error("Amount is too large"));
+            return;
+        }
+        String result = Money.format(amountMinor, fromCurrency) + " " + fromCurrency + " = "
+                + Money.format(currentResultMinor, toCurrency) + " " + toCurrency;
+        android.util.Log.d("CurrencyViewModel", "Conversion result: " + result);
+        logLatency(requestStart);
+        _uiState.setValue(new UiState.Success(result + "\n" + describeAge(rates.getTimestamp())));
+    }
+
+    /**
+     * e.g. "Rates updated 5 minutes ago (offline)"
+     */
+    private String describeAge(long timestamp) {
+        long now = System.currentTimeMillis();
+        CharSequence age = now - timestamp < DateUtils.MINUTE_IN_MILLIS
+                ? "just now"
+                : DateUtils.getRelativeTimeSpanString(timestamp, now, DateUtils.MINUTE_IN_MILLIS);
+        return "Rates updated " + age + (repository.getConnectivity().isOnline() ? "" : " (offline)");
+    }
+
+    /**
+     * LIVE ENTRY POINT - Called from Fragment on every edit of the amount or either spinner
+     * Must be called on the main thread.
+     *
+     * The first edit is handed to the background thread at once. Edits that
+     * arrive while an evaluation is in flight only replace the pending input,
+     * and the latest one is evaluated as soon as that evaluation returns, so
+     * a burst (typing, paste, restored state) costs at most one extra
+     * evaluation and an idle keystroke waits for none. Results of superseded
+     * input are dropped. Incomplete or invalid input clears the live result
+     * without an error message.
+     */
+    public void onInputChanged(String fromCurrency, String toCurrency, String amountStr) {
+        liveFrom = fromCurrency;
+        liveTo = toCurrency;
+        liveAmount = amountStr;
+        liveInputTime = SystemClock.uptimeMillis();
+        liveGeneration.incrementAndGet();
+
+        if (liveInFlight) {
+            livePending = true;
+        } else {
+            evaluateLive();
+        }
+    }
+
+    private void onLiveRatesLoaded(CrossRateEngine engine) {
+        liveRates = engine;
+        // New rates: re-evaluate whatever is on screen
+        if (liveAmount != null) {
+            onInputChanged(liveFrom, liveTo, liveAmount);
+        }
+    }
+
+    /**
+     * Hands the latest input to the live executor; runs on the main thread
+     */
+    private void evaluateLive() {
+        CrossRateEngine rates = liveRates;
+        if (rates == null) {
+            // Nothing loaded yet - the Convert button fetches rates
+            return;
+        }
+
+        liveInFlight = true;
+        long generation = liveGeneration.get();
+        String from = liveFrom;
+        String to = liveTo;
+        String amountStr = liveAmount;
+        long inputTime = liveInputTime;
+
+        liveExecutor.execute(() -> {
+            LiveConversion conversion = liveGeneration.get() == generation
+                    ? convertLive(rates, from, to, amountStr) : null;
+            mainHandler.post(() -> onLiveEvaluated(generation, conversion, inputTime));
         });
     }
 
+    private void onLiveEvaluated(long generation, LiveConversion conversion, long inputTime) {
+        liveInFlight = false;
+        if (liveGeneration.get() != generation) {
+            // Newer input arrived meanwhile; evaluate that instead
+            if (livePending) {
+                livePending = false;
+                evaluateLive();
+            }
+            return;
+        }
+        livePending = false;
+
+        if (conversion != null) {
+            currentFromCurrency = conversion.fromCurrency;
+            currentToCurrency = conversion.toCurrency;
+            currentAmountMinor = conversion.amountMinor;
+            currentResultMinor = conversion.resultMinor;
+        }
+        _liveResult.setValue(conversion != null ? conversion.text : "");
+
+        long latency = SystemClock.uptimeMillis() - inputTime;
+        if (latency > FRAME_MS) {
+            android.util.Log.d("CurrencyViewModel", "Live result took " + latency + "ms");
+        }
+    }
+
+    /**
+     * Pure evaluation of one live input; runs on the live executor
+     *
+     * @return The conversion, or null if the input is incomplete, invalid or a currency is missing
+     */
+    private static LiveConversion convertLive(CrossRateEngine rates, String fromCurrency, String toCurrency,
+            String amountStr) {
+        if (fromCurrency == null || toCurrency == null || amountStr == null) {
+            return null;
+        }
+        long amountMinor;
+        try {
+            amountMinor = Money.parse(amountStr, CurrencyUnits.digits(fromCurrency), Money.DEFAULT_ROUNDING);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+        if (amountMinor <= 0) {
+            return null;
+        }
+
+        double rate = fromCurrency.equals(toCurrency) ? 1.0 : rates.getRate(fromCurrency, toCurrency);
+        if (Double.isNaN(rate)) {
+            return null;
+        }
+        try {
+            long resultMinor = Money.convert(amountMinor, fromCurrency, toCurrency, rate, Money.DEFAULT_ROUNDING);
+            String text = Money.format(amountMinor, fromCurrency) + " " + fromCurrency + " = "
+                    + Money.format(resultMinor, toCurrency) + " " + toCurrency;
+            return new LiveConversion(fromCurrency, toCurrency, amountMinor, resultMinor, text);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static final class LiveConversion {
+        final String fromCurrency;
+        final String toCurrency;
+        final long amountMinor;
+        final long resultMinor;
+        final String text;
+
+        LiveConversion(String fromCurrency, String toCurrency, long amountMinor, long resultMinor, String text) {
+            this.fromCurrency = fromCurrency;
+            this.toCurrency = toCurrency;
+            this.amountMinor = amountMinor;
+            this.resultMinor = resultMinor;
+            this.text = text;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancelActiveConversion();
+        repository.getLoadedCrossRates().removeObserver(liveRatesObserver);
+        liveGeneration.incrementAndGet();
+        liveExecutor.shutdownNow();
+    }
+
     /**
-     * Check network availability
-     * Moved from Fragment - this is business logic
+     * Log request-to-result latency, and for the first result of the process
+     * also the time since process start (cold-start measurement)
      */
-    private boolean isNetworkAvailable() {
-        ConnectivityManager cm = (ConnectivityManager) application.getSystemService(Context.CONNECTIVITY_SERVICE);
-        if (cm != null) {
-            NetworkInfo netInfo = cm.getActiveNetworkInfo();
-            return netInfo != null && netInfo.isConnected();
+    private static void logLatency(long requestStart) {
+        long now = SystemClock.elapsedRealtime();
+        android.util.Log.d("CurrencyViewModel", "Result ready in " + (now - requestStart) + "ms");
+        if (!firstResultLogged) {
+            firstResultLogged = true;
+            android.util.Log.d("CurrencyViewModel", "First result "
+                    + (now - Process.getStartElapsedRealtime()) + "ms after process start");
         }
-        return false;
     }
 
     /**
      * Get current conversion data for saving as favorite
      */
     public ConversionData getCurrentConversionData() {
-        return new ConversionData(currentFromCurrency, currentToCurrency, currentAmount, currentResult);
+        return new ConversionData(currentFromCurrency, currentToCurrency, currentAmountMinor, currentResultMinor);
     }
 
     /**
@@ -196,14 +427,15 @@ public class CurrencyConverterViewModel extends ViewModel {
     public static class ConversionData {
         public final String fromCurrency;
         public final String toCurrency;
-        public final double amount;
-        public final double result;
+        // Fixed-point minor units of fromCurrency / toCurrency
+        public final long amountMinor;
+        public final long resultMinor;
 
-        public ConversionData(String fromCurrency, String toCurrency, double amount, double result) {
+        public ConversionData(String fromCurrency, String toCurrency, long amountMinor, long resultMinor) {
             this.fromCurrency = fromCurrency;
             this.toCurrency = toCurrency;
-            this.amount = amount;
-            this.result = result;
+            this.amountMinor = amountMinor;
+            this.resultMinor = resultMinor;
         }
     }
 }
@@ -0,0 +1,100 @@
+package com.example.currencyconverter.ui.favorites;
+
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.money.CurrencyUnits;
+import com.example.currencyconverter.data.money.Money;
+import com.example.currencyconverter.data.repository.FavoriteRevaluator;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Immutable display model of one favorite, built off the main thread
+ *
+ * Both display strings are formatted once when the page is loaded, so
+ * binding a row only sets text. Diffing compares primitives: the currency
+ * pair is the {@link FavoriteRevaluator#pairKey} computed when the item is
+ * built, which also keys the row's current value.
+ */
+public final class FavoriteItem {
+
+    // SimpleDateFormat is not thread-safe; one per mapping thread, reused across items
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+        }
+    };
+
+    private static final ThreadLocal<StringBuilder> TEXT = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(64);
+        }
+    };
+
+    private final FavoriteConversion favorite;
+    private final long pairKey;
+    private final String conversionText;
+    private final String dateText;
+
+    private FavoriteItem(FavoriteConversion favorite, String conversionText, String dateText) {
+        this.favorite = favorite;
+        this.pairKey = FavoriteRevaluator.pairKey(favorite.getFromCurrency(), favorite.getToCurrency());
+        this.conversionText = conversionText;
+        this.dateText = dateText;
+    }
+
+    /**
+     * Format a favorite for display; safe to call from any thread
+     */
+    public static FavoriteItem from(FavoriteConversion favorite) {
+        String from = favorite.getFromCurrency();
+        String to = favorite.getToCurrency();
+
+        // Each side uses its own currency's minor units (0 for JPY, 3 for KWD)
+        StringBuilder text = TEXT.get();
+        text.setLength(0);
+        Money.format(text, favorite.getAmountMinor(), CurrencyUnits.digits(from)).append(' ').append(from)
+                .append(" = ");
+        Money.format(text, favorite.getResultMinor(), CurrencyUnits.digits(to)).append(' ').append(to);
+
+        String date = DATE_FORMAT.get().format(new Date(favorite.getTimestamp()));
+        return new FavoriteItem(favorite, text.toString(), date);
+    }
+
+    public FavoriteConversion getFavorite() {
+        return favorite;
+    }
+
+    public int getId() {
+        return favorite.getId();
+    }
+
+    /**
+     * Key of this favorite's currency pair in {@link FavoriteRevaluator}
+     */
+    public long getPairKey() {
+        return pairKey;
+    }
+
+    public String getConversionText() {
+        return conversionText;
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    /**
+     * Whether both items render the same, from primitives only
+     * Equal pair keys mean equal currency codes.
+     */
+    boolean hasSameContent(FavoriteItem other) {
+        return pairKey == other.pairKey
+                && favorite.getAmountMinor() == other.favorite.getAmountMinor()
+                && favorite.getResultMinor() == other.favorite.getResultMinor()
+                && favorite.getTimestamp() == other.favorite.getTimestamp();
+    }
+}
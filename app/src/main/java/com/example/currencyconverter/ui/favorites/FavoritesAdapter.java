@@ -1,27 +1,39 @@
 package com.example.currencyconverter.ui.favorites;
 
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.repository.FavoriteRevaluator;
 import com.example.currencyconverter.databinding.ItemFavoriteBinding;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.List;
 
 /**
  * RecyclerView Adapter for Favorites
  * 2nd Semester - RecyclerView Advanced + DiffUtil
+ *
+ * Items arrive preformatted ({@link FavoriteItem}), so binding sets text and
+ * allocates nothing. PagingDataAdapter runs its diffs on a background
+ * dispatcher; row identity is the database id.
+ *
+ * The current value line is read from {@link FavoriteRevaluator}. After a
+ * revaluation only rows of the pairs that moved are rebound, with a payload
+ * that touches just that line.
  */
-public class FavoritesAdapter extends ListAdapter<FavoriteConversion, FavoritesAdapter.FavoriteViewHolder> {
+public class FavoritesAdapter extends PagingDataAdapter<FavoriteItem, FavoritesAdapter.FavoriteViewHolder> {
+
+    // Rebind payload: only the current value changed
+    private static final Object PAYLOAD_VALUE = new Object();
 
     private final OnFavoriteClickListener listener;
+    private final FavoriteRevaluator revaluator;
 
     public interface OnFavoriteClickListener {
         void onFavoriteClick(FavoriteConversion favorite);
@@ -29,23 +41,34 @@ public class FavoritesAdapter extends ListAdapter<FavoriteConversion, FavoritesA
         void onDeleteClick(FavoriteConversion favorite);
     }
 
-    public FavoritesAdapter(OnFavoriteClickListener listener) {
+    public FavoritesAdapter(OnFavoriteClickListener listener, FavoriteRevaluator revaluator) {
         super(DIFF_CALLBACK);
         this.listener = listener;
+        this.revaluator = revaluator;
     }
 
-    private static final DiffUtil.ItemCallback<FavoriteConversion> DIFF_CALLBACK = new DiffUtil.ItemCallback<FavoriteConversion>() {
+    /**
+     * Rebind the value line of loaded rows whose pair was revalued
+     * Only the loaded window is scanned, and peek() does not trigger page loads.
+     */
+    public void onRevalued(FavoriteRevaluator.Revaluation revaluation) {
+        for (int position = 0; position < getItemCount(); position++) {
+            FavoriteItem item = peek(position);
+            if (item != null && revaluation.contains(item.getPairKey())) {
+                notifyItemChanged(position, PAYLOAD_VALUE);
+            }
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<FavoriteItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<FavoriteItem>() {
         @Override
-        public boolean areItemsTheSame(@NonNull FavoriteConversion oldItem, @NonNull FavoriteConversion newItem) {
+        public boolean areItemsTheSame(@NonNull FavoriteItem oldItem, @NonNull FavoriteItem newItem) {
             return oldItem.getId() == newItem.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull FavoriteConversion oldItem, @NonNull FavoriteConversion newItem) {
-            return oldItem.getFromCurrency().equals(newItem.getFromCurrency()) &&
-                    oldItem.getToCurrency().equals(newItem.getToCurrency()) &&
-                    oldItem.getAmount() == newItem.getAmount() &&
-                    oldItem.getResult() == newItem.getResult();
+        public boolean areContentsTheSame(@NonNull FavoriteItem oldItem, @NonNull FavoriteItem newItem) {
+            return oldItem.hasSameContent(newItem);
         }
     };
 
@@ -61,43 +84,57 @@ public class FavoritesAdapter extends ListAdapter<FavoriteConversion, FavoritesA
 
     @Override
     public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position) {
-        FavoriteConversion favorite = getItem(position);
-        holder.bind(favorite);
+        FavoriteItem item = getItem(position);
+        if (item != null) {
+            holder.bind(item);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        FavoriteItem item = getItem(position);
+        if (item != null) {
+            holder.bindValue(item);
+        }
     }
 
     class FavoriteViewHolder extends RecyclerView.ViewHolder {
         private final ItemFavoriteBinding binding;
+        private FavoriteConversion favorite;
 
         public FavoriteViewHolder(ItemFavoriteBinding binding) {
             super(binding.getRoot());
             this.binding = binding;
-        }
-
-        public void bind(FavoriteConversion favorite) {
-            String conversion = String.format(Locale.getDefault(),
-                    "%.2f %s = %.2f %s",
-                    favorite.getAmount(),
-                    favorite.getFromCurrency(),
-                    favorite.getResult(),
-                    favorite.getToCurrency());
-
-            binding.textViewConversion.setText(conversion);
-
-            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
-            String dateStr = sdf.format(new Date(favorite.getTimestamp()));
-            binding.textViewDate.setText(dateStr);
 
+            // Listeners are set once per holder, not per bind
             binding.getRoot().setOnClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && favorite != null) {
                     listener.onFavoriteClick(favorite);
                 }
             });
 
             binding.buttonDelete.setOnClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && favorite != null) {
                     listener.onDeleteClick(favorite);
                 }
             });
         }
+
+        public void bind(FavoriteItem item) {
+            favorite = item.getFavorite();
+            binding.textViewConversion.setText(item.getConversionText());
+            binding.textViewDate.setText(item.getDateText());
+            bindValue(item);
+        }
+
+        void bindValue(FavoriteItem item) {
+            String value = revaluator.getValueText(item.getPairKey(), item.getId());
+            binding.textViewValue.setText(value);
+            binding.textViewValue.setVisibility(value != null ? View.VISIBLE : View.GONE);
+        }
     }
 }
@@ -11,6 +11,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.currencyconverter.R;
@@ -52,25 +53,33 @@ public class FavoritesFragment extends Fragment implements FavoritesAdapter.OnFa
     }
 
     private void setupRecyclerView() {
-        adapter = new FavoritesAdapter(this);
+        adapter = new FavoritesAdapter(this, viewModel.getRevaluator());
         binding.recyclerViewFavorites.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewFavorites.setAdapter(adapter);
     }
 
     private void setupObservers() {
-        viewModel.getAllFavorites().observe(getViewLifecycleOwner(), favorites -> {
-            adapter.submitList(favorites);
-
-            // Stop refreshing animation
-            binding.swipeRefreshLayout.setRefreshing(false);
-
-            if (favorites == null || favorites.isEmpty()) {
-                binding.textViewEmpty.setVisibility(View.VISIBLE);
-                binding.swipeRefreshLayout.setVisibility(View.GONE);
-            } else {
-                binding.textViewEmpty.setVisibility(View.GONE);
-                binding.swipeRefreshLayout.setVisibility(View.VISIBLE);
+        viewModel.getFavorites().observe(getViewLifecycleOwner(), favorites ->
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), favorites));
+
+        // New rates: rebind only the rows whose value moved
+        viewModel.getRevaluations().observe(getViewLifecycleOwner(), adapter::onRevalued);
+
+        // Pages load on their own; the empty state follows the refresh load
+        adapter.addLoadStateListener(states -> {
+            if (binding == null) {
+                return kotlin.Unit.INSTANCE;
+            }
+            if (!(states.getRefresh() instanceof LoadState.Loading)) {
+                // Stop refreshing animation
+                binding.swipeRefreshLayout.setRefreshing(false);
             }
+            boolean empty = states.getRefresh() instanceof LoadState.NotLoading
+                    && states.getAppend().getEndOfPaginationReached()
+                    && adapter.getItemCount() == 0;
+            binding.textViewEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+            binding.swipeRefreshLayout.setVisibility(empty ? View.GONE : View.VISIBLE);
+            return kotlin.Unit.INSTANCE;
         });
     }
 
@@ -81,8 +90,8 @@ public class FavoritesFragment extends Fragment implements FavoritesAdapter.OnFa
 
         // Swipe to refresh
         binding.swipeRefreshLayout.setOnRefreshListener(() -> {
-            // Refresh favorites list (data comes from LiveData automatically)
-            binding.swipeRefreshLayout.setRefreshing(false);
+            // Reload the window around the current scroll position
+            adapter.refresh();
         });
     }
 
@@ -1,12 +1,19 @@
 package com.example.currencyconverter.ui.favorites;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
 
 import com.example.currencyconverter.data.local.entity.FavoriteConversion;
 import com.example.currencyconverter.data.repository.CurrencyRepository;
+import com.example.currencyconverter.data.repository.FavoriteRevaluator;
 
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 import dagger.hilt.android.lifecycle.HiltViewModel;
@@ -15,24 +22,41 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
  * ViewModel for Favorites
  * 2nd Semester - MVVM Architecture Implementation with Hilt DI
  * 
- * Manages favorites list with LiveData from Room Database
+ * Manages the paged favorites list from Room Database
  * Repository injected via Hilt
  */
 @HiltViewModel
 public class FavoritesViewModel extends ViewModel {
 
     private final CurrencyRepository repository;
-    private final LiveData<List<FavoriteConversion>> allFavorites;
+    private final LiveData<PagingData<FavoriteItem>> favorites;
+    // Formats loaded pages into display models, off the main thread
+    private final ExecutorService formatExecutor = Executors.newSingleThreadExecutor();
 
     // Constructor with Hilt dependency injection
     @Inject
     public FavoritesViewModel(CurrencyRepository repository) {
         this.repository = repository;
-        allFavorites = repository.getAllFavorites();
+        LiveData<PagingData<FavoriteItem>> items = Transformations.map(
+                PagingLiveData.getLiveData(repository.getFavoritesPager()),
+                page -> PagingDataTransforms.map(page, formatExecutor, FavoriteItem::from));
+        // Cached in the ViewModel so loaded pages survive rotation
+        favorites = PagingLiveData.cachedIn(items, ViewModelKt.getViewModelScope(this));
     }
 
-    public LiveData<List<FavoriteConversion>> getAllFavorites() {
-        return allFavorites;
+    public LiveData<PagingData<FavoriteItem>> getFavorites() {
+        return favorites;
+    }
+
+    /**
+     * Current values of the favorites, updated on every rate refresh
+     */
+    public FavoriteRevaluator getRevaluator() {
+        return repository.getFavoriteRevaluator();
+    }
+
+    public LiveData<FavoriteRevaluator.Revaluation> getRevaluations() {
+        return repository.getFavoriteRevaluations();
     }
 
     public void insertFavorite(FavoriteConversion favorite) {
@@ -46,4 +70,10 @@ public class FavoritesViewModel extends ViewModel {
     public void deleteFavoriteById(int id) {
         repository.deleteFavoriteById(id);
     }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        formatExecutor.shutdown();
+    }
 }
@@ -4,29 +4,33 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.content.Context;
 import android.os.Build;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.hilt.work.HiltWorker;
+import androidx.work.Data;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 import com.example.currencyconverter.R;
 import com.example.currencyconverter.data.Resource;
-import com.example.currencyconverter.data.remote.api.CurrencyApiService;
-import com.example.currencyconverter.data.remote.api.RetrofitClient;
-import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
+import com.example.currencyconverter.data.rates.RateTable;
 import com.example.currencyconverter.data.repository.CurrencyRepository;
 import dagger.assisted.Assisted;
 import dagger.assisted.AssistedInject;
-import java.util.Map;
-import retrofit2.Call;
-import retrofit2.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * WorkManager Worker for periodic exchange rate updates
  * 2nd Semester - Week 7: Background Tasks
  * 
  * Runs daily to:
- * - Fetch latest exchange rates
+ * - Fetch latest exchange rates for each requested base in parallel
+ *   (by default only the pivot snapshot; all pairs are derived from it)
  * - Update Room cache
  * - Show notification with update status
  * 
@@ -39,6 +43,15 @@ public class ExchangeRateUpdateWorker extends Worker {
     private static final int NOTIFICATION_ID = 1001;
     private static final String API_KEY = "457716a57a835e3d0027e6fc";
 
+    // Input: bases to refresh; output: per-base timing and the bases that failed
+    public static final String KEY_BASES = "bases";
+    public static final String KEY_ELAPSED_MS = "elapsed_ms";
+    public static final String KEY_FAILED = "failed_bases";
+
+    // Every pair is a cross rate of the pivot, so by default only the pivot is fetched
+    private static final String[] DEFAULT_BASES = { CurrencyRepository.PIVOT_CURRENCY };
+    private static final int MAX_PARALLEL = 4;
+
     private final CurrencyRepository repository;
 
     @AssistedInject
@@ -53,35 +66,62 @@ public class ExchangeRateUpdateWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
+        ExecutorService pool = null;
         try {
             // Create notification channel (required for Android 8.0+)
             createNotificationChannel();
 
-            // Fetch latest exchange rates for major currencies
-            String[] baseCurrencies = { "USD", "EUR", "GBP", "TRY" };
-            int successCount = 0;
+            String[] bases = getInputData().getStringArray(KEY_BASES);
+            if (bases == null || bases.length == 0) {
+                bases = DEFAULT_BASES;
+            }
 
-            for (String baseCurrency : baseCurrencies) {
-                // Fetch rates synchronously (we're already on background thread)
-                Resource<Map<String, Double>> result = fetchRatesSync(baseCurrency);
+            // Fetch every base concurrently over the repository's shared client
+            // A base whose snapshot is still fresh returns from cache, so a retry
+            // after a partial failure only hits the network for the bases that failed
+            pool = Executors.newFixedThreadPool(Math.min(MAX_PARALLEL, bases.length));
+            List<Future<Resource<RateTable>>> results = new ArrayList<>(bases.length);
+            long[] elapsedMs = new long[bases.length];
+            for (int i = 0; i < bases.length; i++) {
+                String base = bases[i];
+                int index = i;
+                results.add(pool.submit(() -> {
+                    long start = SystemClock.elapsedRealtime();
+                    Resource<RateTable> result = repository.fetchLatestRatesSync(API_KEY, base);
+                    elapsedMs[index] = SystemClock.elapsedRealtime() - start;
+                    return result;
+                }));
+            }
 
-                if (result != null && result.isSuccess() && result.getData() != null) {
-                    // Cache the rates
-                    repository.cacheExchangeRates(baseCurrency, result.getData());
-                    successCount++;
+            List<String> failed = new ArrayList<>();
+            int successCount = 0;
+            for (int i = 0; i < bases.length; i++) {
+                Resource<RateTable> result = results.get(i).get();
+                boolean ok = result != null && result.isSuccess() && result.getData() != null;
+                if (ok) {
+                    successCount += result.getData().size();
+                } else {
+                    failed.add(bases[i]);
                 }
+                android.util.Log.d("ExchangeRateUpdateWorker", bases[i] + " refreshed in "
+                        + elapsedMs[i] + "ms, " + (ok ? "ok" : "failed"));
             }
 
-            // Show success notification
-            if (successCount > 0) {
+            Data output = new Data.Builder()
+                    .putStringArray(KEY_BASES, bases)
+                    .putLongArray(KEY_ELAPSED_MS, elapsedMs)
+                    .putStringArray(KEY_FAILED, failed.toArray(new String[0]))
+                    .build();
+
+            if (failed.isEmpty()) {
                 showNotification(
                         "Exchange Rates Updated",
                         "Successfully updated rates for " + successCount + " currencies");
-                return Result.success();
+                return Result.success(output);
             } else {
                 showNotification(
                         "Update Failed",
-                        "Could not update exchange rates. Will retry later.");
+                        "Could not update " + String.join(", ", failed) + ". Will retry later.");
                 return Result.retry();
             }
 
@@ -90,32 +130,10 @@ public class ExchangeRateUpdateWorker extends Worker {
                     "Update Error",
                     "Error updating rates: " + e.getMessage());
             return Result.failure();
-        }
-    }
-
-    /**
-     * Fetch exchange rates synchronously using Retrofit's execute() method
-     * This properly blocks until the API call completes
-     */
-    private Resource<Map<String, Double>> fetchRatesSync(String baseCurrency) {
-        try {
-            // Create API service
-            CurrencyApiService apiService = RetrofitClient.getInstance()
-                    .create(CurrencyApiService.class);
-
-            // Make synchronous API call using execute()
-            Call<ExchangeRateResponse> call = apiService.getExchangeRates(API_KEY, baseCurrency);
-            Response<ExchangeRateResponse> response = call.execute();
-
-            // Check if successful
-            if (response.isSuccessful() && response.body() != null && response.body().getRates() != null) {
-                Map<String, Double> rates = response.body().getRates();
-                return Resource.success(rates);
-            } else {
-                return Resource.error("Failed to fetch rates for " + baseCurrency, null);
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
             }
-        } catch (Exception e) {
-            return Resource.error("Error: " + e.getMessage(), null);
         }
     }
 
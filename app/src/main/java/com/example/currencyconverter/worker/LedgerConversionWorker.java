@@ -0,0 +1,243 @@
+package com.example.currencyconverter.worker;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.OpenableColumns;
+import androidx.annotation.NonNull;
+import androidx.hilt.work.HiltWorker;
+import androidx.work.Data;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.currencyconverter.data.Resource;
+import com.example.currencyconverter.data.ledger.LedgerConverter;
+import com.example.currencyconverter.data.rates.BatchConverter;
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.repository.CurrencyRepository;
+import dagger.assisted.Assisted;
+import dagger.assisted.AssistedInject;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * WorkManager Worker for converting a whole transaction ledger CSV
+ * 2nd Semester - Week 7: Background Tasks
+ *
+ * Streams the input through {@link LedgerConverter} chunk by chunk:
+ * - Memory stays constant whatever the file size
+ * - Progress (rows done, percent of input read) is published as progress data
+ * - After every chunk a checkpoint (rows done, output bytes) is saved, so a
+ *   run killed with the process resumes where it stopped instead of
+ *   starting over
+ * - The checkpoint records the provider timestamp of the rate snapshot; a
+ *   resumed run that fetches a different snapshot starts over instead
+ *
+ * Uses Hilt for dependency injection
+ */
+@HiltWorker
+public class LedgerConversionWorker extends Worker {
+
+    private static final String API_KEY = "457716a57a835e3d0027e6fc";
+
+    // Input
+    public static final String KEY_INPUT_URI = "input_uri";
+    public static final String KEY_OUTPUT_URI = "output_uri";
+    public static final String KEY_TARGET_CURRENCY = "target_currency";
+
+    // Progress and output
+    public static final String KEY_ROWS = "rows";
+    public static final String KEY_PERCENT = "percent";
+    public static final String KEY_FAILED_ROWS = "failed_rows";
+    public static final String KEY_ROWS_PER_SECOND = "rows_per_second";
+    // Sum of converted amounts in minor units of the target currency
+    public static final String KEY_TOTAL_MINOR = "total_minor";
+
+    private static final String CHECKPOINTS = "ledger_checkpoints";
+
+    private final CurrencyRepository repository;
+
+    @AssistedInject
+    public LedgerConversionWorker(
+            @Assisted @NonNull Context context,
+            @Assisted @NonNull WorkerParameters params,
+            CurrencyRepository repository) {
+        super(context, params);
+        this.repository = repository;
+    }
+
+    /**
+     * Queue a conversion of {@code input} into {@code output} (both content URIs, output opened read-write)
+     *
+     * @return Work id to observe progress with
+     */
+    public static UUID enqueue(Context context, Uri input, Uri output, String targetCurrency) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(LedgerConversionWorker.class)
+                .setInputData(new Data.Builder()
+                        .putString(KEY_INPUT_URI, input.toString())
+                        .putString(KEY_OUTPUT_URI, output.toString())
+                        .putString(KEY_TARGET_CURRENCY, targetCurrency)
+                        .build())
+                .build();
+        WorkManager.getInstance(context).enqueue(request);
+        return request.getId();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String input = getInputData().getString(KEY_INPUT_URI);
+        String output = getInputData().getString(KEY_OUTPUT_URI);
+        String targetCurrency = getInputData().getString(KEY_TARGET_CURRENCY);
+        if (input == null || output == null || targetCurrency == null) {
+            return Result.failure();
+        }
+
+        // One snapshot for the whole file; every pair is a cross rate of the pivot
+        Resource<CrossRateEngine> rates = repository.fetchCrossRatesSync(API_KEY, CurrencyRepository.PIVOT_CURRENCY);
+        if (!rates.isSuccess() || rates.getData() == null) {
+            return Result.retry();
+        }
+        if (!rates.getData().supports(targetCurrency)) {
+            return Result.failure();
+        }
+
+        // Checkpoints are keyed by work id, which survives process death and retries
+        SharedPreferences checkpoints = getApplicationContext()
+                .getSharedPreferences(CHECKPOINTS, Context.MODE_PRIVATE);
+        String key = getId().toString();
+        long skipRows = checkpoints.getLong(key + ".rows", 0);
+        long outputBytes = checkpoints.getLong(key + ".bytes", 0);
+        long totalMinor = checkpoints.getLong(key + ".total", 0);
+
+        // Rows before the checkpoint were converted at the rates of that run's
+        // snapshot; if the provider has published new rates since, start over
+        // so the whole file uses one snapshot
+        long snapshot = rates.getData().getPivot().getProviderTimestamp();
+        if (skipRows > 0 && (snapshot == 0 || checkpoints.getLong(key + ".snapshot", 0) != snapshot)) {
+            android.util.Log.d("LedgerConversionWorker", "Rates changed since the checkpoint, restarting");
+            skipRows = 0;
+            outputBytes = 0;
+            totalMinor = 0;
+        }
+
+        ContentResolver resolver = getApplicationContext().getContentResolver();
+        Uri inputUri = Uri.parse(input);
+        long inputSize = querySize(resolver, inputUri);
+
+        try (InputStream rawInput = resolver.openInputStream(inputUri)) {
+            if (rawInput == null) {
+                return Result.failure();
+            }
+            ParcelFileDescriptor outputFd = resolver.openFileDescriptor(Uri.parse(output), "rw");
+            if (outputFd == null) {
+                return Result.failure();
+            }
+            CountingInputStream counted = new CountingInputStream(rawInput);
+            Reader reader = new InputStreamReader(counted, StandardCharsets.UTF_8);
+
+            // The stream owns the descriptor and closes it
+            FileOutputStream fileOutput = new ParcelFileDescriptor.AutoCloseOutputStream(outputFd);
+            try (OutputStream out = new BufferedOutputStream(fileOutput, 64 * 1024)) {
+                // Drop anything written after the last checkpoint
+                FileChannel channel = fileOutput.getChannel();
+                channel.truncate(outputBytes);
+                channel.position(outputBytes);
+
+                if (skipRows > 0) {
+                    android.util.Log.d("LedgerConversionWorker", "Resuming after row " + skipRows);
+                }
+
+                LedgerConverter converter = new LedgerConverter(new BatchConverter(rates.getData()), targetCurrency);
+                LedgerConverter.Result result = converter.convert(reader, out, skipRows, outputBytes,
+                        totalMinor, (rowsDone, bytesWritten, total) -> {
+                            checkpoints.edit()
+                                    .putLong(key + ".rows", rowsDone)
+                                    .putLong(key + ".bytes", bytesWritten)
+                                    .putLong(key + ".total", total)
+                                    .putLong(key + ".snapshot", snapshot)
+                                    .apply();
+                            int percent = inputSize > 0 ? (int) (counted.count * 100 / inputSize) : -1;
+                            setProgressAsync(new Data.Builder()
+                                    .putLong(KEY_ROWS, rowsDone)
+                                    .putInt(KEY_PERCENT, Math.min(percent, 100))
+                                    .build());
+                            if (isStopped()) {
+                                throw new IOException("Stopped");
+                            }
+                        });
+
+                android.util.Log.d("LedgerConversionWorker", "Converted " + result.rows + " rows in "
+                        + result.elapsedMs + "ms, " + result.getRowsPerSecond() + " rows/s, "
+                        + result.failedRows + " failed");
+
+                checkpoints.edit().remove(key + ".rows").remove(key + ".bytes").remove(key + ".total")
+                        .remove(key + ".snapshot").apply();
+                return Result.success(new Data.Builder()
+                        .putLong(KEY_ROWS, result.rows)
+                        .putLong(KEY_TOTAL_MINOR, result.totalMinor)
+                        .putLong(KEY_FAILED_ROWS, result.failedRows)
+                        .putLong(KEY_ROWS_PER_SECOND, result.getRowsPerSecond())
+                        .build());
+            }
+        } catch (IOException | SecurityException e) {
+            android.util.Log.e("LedgerConversionWorker", "Ledger conversion interrupted", e);
+            // The checkpoint is kept; a retry continues from it
+            return isStopped() ? Result.retry() : Result.failure();
+        }
+    }
+
+    private static long querySize(ContentResolver resolver, Uri uri) {
+        try (Cursor cursor = resolver.query(uri, new String[] { OpenableColumns.SIZE }, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            // Size is only used for the progress percentage
+        }
+        return -1;
+    }
+
+    /**
+     * Counts bytes consumed from the input for the progress percentage
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
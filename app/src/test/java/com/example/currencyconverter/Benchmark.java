@@ -0,0 +1,11 @@
+package com.example.currencyconverter;
+
+/**
+ * JUnit category of timing benchmarks
+ *
+ * Excluded from the default unit test run, so {@code test} prints nothing
+ * and does not depend on machine speed. Run them with
+ * {@code ./gradlew testDebugUnitTest -Pbenchmarks}.
+ */
+public interface Benchmark {
+}
@@ -0,0 +1,53 @@
+package com.example.currencyconverter.data.history;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DownsamplerTest {
+
+    private static RateSeries series(double[] rates) {
+        long[] times = new long[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            times[i] = 1_000_000L + i * 3_600_000L;
+        }
+        return new RateSeries(times, rates, rates.length);
+    }
+
+    @Test
+    public void smallSeries_isReturnedAsIs() {
+        RateSeries series = series(new double[] { 1, 2, 3 });
+        assertSame(series, Downsampler.largestTriangleThreeBuckets(series, 10));
+    }
+
+    @Test
+    public void largeSeries_isBoundedAndKeepsEndpoints() {
+        double[] rates = new double[50_000];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = 30 + Math.sin(i / 500.0);
+        }
+        RateSeries series = series(rates);
+
+        RateSeries sampled = Downsampler.largestTriangleThreeBuckets(series, 400);
+        assertEquals(400, sampled.size());
+        assertEquals(series.getTime(0), sampled.getTime(0));
+        assertEquals(series.getTime(rates.length - 1), sampled.getTime(399));
+        for (int i = 1; i < sampled.size(); i++) {
+            assertTrue(sampled.getTime(i) > sampled.getTime(i - 1));
+        }
+    }
+
+    @Test
+    public void spike_survivesDownsampling() {
+        double[] rates = new double[10_000];
+        java.util.Arrays.fill(rates, 32.0);
+        rates[6_789] = 40.0;
+
+        RateSeries sampled = Downsampler.largestTriangleThreeBuckets(series(rates), 100);
+        boolean found = false;
+        for (int i = 0; i < sampled.size(); i++) {
+            found |= sampled.getRate(i) == 40.0;
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.currencyconverter.data.history;
+
+import com.example.currencyconverter.data.rates.CurrencyCodes;
+import com.example.currencyconverter.data.rates.RateTable;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryChunkTest {
+
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    private static final long START = 1_714_003_200_000L;
+    private static final int CHUNK_POINTS = 256;
+
+    private static RateTable snapshot(Random random, String[] codes, double[] levels) {
+        RateTable.Builder builder = new RateTable.Builder("USD");
+        for (int c = 0; c < codes.length; c++) {
+            // Provider rates carry about six significant digits
+            levels[c] *= 1 + (random.nextGaussian() * 0.002);
+            builder.put(codes[c], Math.round(levels[c] * 1e4) / 1e4);
+        }
+        return builder.build(0L);
+    }
+
+    private static String[] codes(int count) {
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26) + 'X';
+        }
+        return codes;
+    }
+
+    @Test
+    public void roundTrip_preservesTimesAndRates() {
+        RateTable first = new RateTable.Builder("USD").put("EUR", 0.9).put("TRY", 32.2145).build(0L);
+        RateTable second = new RateTable.Builder("USD").put("EUR", 0.9).put("JPY", 155.25).build(0L);
+        RateTable third = new RateTable.Builder("USD").put("EUR", 0.91).put("TRY", 32.3).build(0L);
+
+        byte[] data = new HistoryChunk.Builder()
+                .append(first, START)
+                .append(second, START + HOUR_MS)
+                .append(third, START + 2 * HOUR_MS + 1234)
+                .encode();
+        HistoryChunk chunk = HistoryChunk.wrap(data);
+
+        assertEquals(3, chunk.getPointCount());
+        assertArrayEquals(new long[] { START, START + HOUR_MS, START + 2 * HOUR_MS + 1000 },
+                chunk.getTimestamps());
+        assertArrayEquals(new double[] { 0.9, 0.9, 0.91 }, chunk.getColumn(CurrencyCodes.ordinalOf("EUR")), 0);
+
+        double[] lira = chunk.getColumn(CurrencyCodes.ordinalOf("TRY"));
+        assertEquals(32.2145, lira[0], 0);
+        assertTrue(Double.isNaN(lira[1]));
+        assertEquals(32.3, lira[2], 0);
+        assertTrue(Double.isNaN(chunk.getColumn(CurrencyCodes.ordinalOf("JPY"))[0]));
+    }
+
+    @Test
+    public void reopenedChunk_appendsAndReplacesSameSecond() {
+        RateTable rates = new RateTable.Builder("USD").put("EUR", 0.9).build(0L);
+        HistoryChunk chunk = HistoryChunk.wrap(new HistoryChunk.Builder().append(rates, START).encode());
+
+        RateTable updated = new RateTable.Builder("USD").put("EUR", 0.95).build(0L);
+        HistoryChunk.Builder builder = HistoryChunk.Builder.from(chunk)
+                .append(rates, START + HOUR_MS)
+                .append(updated, START + HOUR_MS + 500);
+        HistoryChunk reopened = HistoryChunk.wrap(builder.encode());
+
+        assertEquals(2, reopened.getPointCount());
+        assertEquals(0.95, reopened.getColumn(CurrencyCodes.ordinalOf("EUR"))[1], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void olderPoint_isRejected() {
+        RateTable rates = new RateTable.Builder("USD").put("EUR", 0.9).build(0L);
+        new HistoryChunk.Builder().append(rates, START).append(rates, START - HOUR_MS);
+    }
+
+    @Test
+    public void pointInTimeLookup_usesLastPointAtOrBefore() {
+        RateTable rates = new RateTable.Builder("USD").put("EUR", 0.9).build(0L);
+        HistoryChunk chunk = HistoryChunk.wrap(new HistoryChunk.Builder()
+                .append(rates, START)
+                .append(rates, START + HOUR_MS)
+                .append(rates, START + 3 * HOUR_MS)
+                .encode());
+
+        assertEquals(-1, chunk.indexAt(START - 1));
+        assertEquals(0, chunk.indexAt(START));
+        assertEquals(1, chunk.indexAt(START + 2 * HOUR_MS));
+        assertEquals(2, chunk.indexAt(START + 10 * HOUR_MS));
+        assertEquals(2, chunk.indexFrom(START + 2 * HOUR_MS));
+        assertEquals(3, chunk.indexFrom(START + 4 * HOUR_MS));
+    }
+
+    /**
+     * Encode {@code points} snapshots taken every {@code intervalMs}, with the
+     * provider publishing new rates every {@code updateEvery} snapshots
+     *
+     * @return Total compressed bytes
+     */
+    private static long encodeHistory(int points, long intervalMs, int updateEvery) {
+        Random random = new Random(42);
+        String[] codes = codes(160);
+        double[] levels = new double[codes.length];
+        for (int c = 0; c < codes.length; c++) {
+            levels[c] = 0.01 + random.nextDouble() * 1000;
+        }
+
+        long totalBytes = 0;
+        byte[] lastChunk = null;
+        RateTable rates = null;
+        HistoryChunk.Builder builder = new HistoryChunk.Builder();
+        for (int p = 0; p < points; p++) {
+            if (p % updateEvery == 0) {
+                rates = snapshot(random, codes, levels);
+            }
+            // A few seconds of jitter on every refresh
+            builder.append(rates, START + p * intervalMs + random.nextInt(5000));
+            if (builder.size() == CHUNK_POINTS || p == points - 1) {
+                lastChunk = builder.encode();
+                totalBytes += lastChunk.length;
+                builder = new HistoryChunk.Builder();
+            }
+        }
+
+        // Point-in-time lookup on the newest chunk decodes one column only
+        HistoryChunk chunk = HistoryChunk.wrap(lastChunk);
+        int index = chunk.indexAt(Long.MAX_VALUE);
+        double rate = chunk.getColumn(CurrencyCodes.ordinalOf(codes[7]))[index];
+        assertEquals(rates.getRate(codes[7]), rate, 0);
+        return totalBytes;
+    }
+
+    @Test
+    public void fiveYearsOfDailyRates_fitInAFewMegabytes() {
+        long bytes = encodeHistory(5 * 365, 24 * HOUR_MS, 1);
+        assertTrue("History too large: " + bytes, bytes < 3L * 1024 * 1024);
+    }
+
+    @Test
+    public void yearOfHourlyRefreshes_costsLittleMoreThanDailyUpdates() {
+        // The provider publishes daily; unchanged hourly points cost about a bit per rate
+        long bytes = encodeHistory(365 * 24, HOUR_MS, 24);
+        assertTrue("History too large: " + bytes, bytes < 1024 * 1024);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.currencyconverter.data.ledger;
+
+import com.example.currencyconverter.Benchmark;
+import com.example.currencyconverter.data.rates.BatchConverter;
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.RateTable;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class LedgerConverterTest {
+
+    private static LedgerConverter newConverter() {
+        RateTable usd = new RateTable.Builder("USD").put("EUR", 0.5).put("TRY", 30.0).put("JPY", 150.0)
+                .build(1000L);
+        return new LedgerConverter(new BatchConverter(new CrossRateEngine(usd)), "USD");
+    }
+
+    @Test
+    public void rowsAreCopiedWithConvertedAmount() throws IOException {
+        String ledger = "date,description,Amount,Currency\r\n"
+                + "2024-01-01,\"Rent, January\",100,EUR\r\n"
+                + "2024-01-02,\"Said \"\"hi\"\"\",-300,TRY\n"
+                + "\n"
+                + "2024-01-03,Unknown,5,XXX\n"
+                + "2024-01-04,Bad amount,abc,EUR";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        LedgerConverter.Result result = newConverter().convert(new StringReader(ledger), out, 0, 0, 0, null);
+
+        assertEquals("date,description,Amount,Currency,converted_amount,converted_currency\n"
+                + "2024-01-01,\"Rent, January\",100,EUR,200.00,USD\n"
+                + "2024-01-02,\"Said \"\"hi\"\"\",-300,TRY,-10.00,USD\n"
+                + "2024-01-03,Unknown,5,XXX,,USD\n"
+                + "2024-01-04,Bad amount,abc,EUR,,USD\n", out.toString("UTF-8"));
+        assertEquals(5, result.rows);
+        assertEquals(2, result.failedRows);
+        assertEquals(19000, result.totalMinor);
+        assertEquals(out.size(), result.outputBytes);
+    }
+
+    @Test
+    public void outOfRangeAmounts_areCountedAsFailedRows() throws IOException {
+        String ledger = "amount,currency\n"
+                + "1e300,EUR\n"
+                + "50000000000000000,USD\n"
+                + "50000000000000000,USD\n"
+                + "1,USD\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        LedgerConverter.Result result = newConverter().convert(new StringReader(ledger), out, 0, 0, 0, null);
+
+        // Too large for minor units, then a running total past a long
+        assertEquals("amount,currency,converted_amount,converted_currency\n"
+                + "1e300,EUR,,USD\n"
+                + "50000000000000000,USD,50000000000000000.00,USD\n"
+                + "50000000000000000,USD,,USD\n"
+                + "1,USD,1.00,USD\n", out.toString("UTF-8"));
+        assertEquals(4, result.rows);
+        assertEquals(2, result.failedRows);
+        assertEquals(5_000_000_000_000_000_100L, result.totalMinor);
+    }
+
+    @Test
+    public void resumeFromCheckpoint_matchesUninterruptedRun() throws IOException {
+        StringBuilder ledger = new StringBuilder("amount,currency\n");
+        for (int i = 0; i < LedgerConverter.CHUNK_ROWS * 3 + 17; i++) {
+            ledger.append(i).append(i % 2 == 0 ? ",EUR\n" : ",JPY\n");
+        }
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        LedgerConverter.Result uninterrupted = newConverter().convert(new StringReader(ledger.toString()), expected, 0, 0, 0, null);
+
+        // First run dies after its second checkpoint
+        ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        long[] checkpoint = new long[3];
+        try {
+            newConverter().convert(new StringReader(ledger.toString()), partial, 0, 0, 0, (rows, bytes, total) -> {
+                checkpoint[0] = rows;
+                checkpoint[1] = bytes;
+                checkpoint[2] = total;
+                if (rows >= 2 * LedgerConverter.CHUNK_ROWS) {
+                    throw new IOException("Process killed");
+                }
+            });
+            fail();
+        } catch (IOException expectedDeath) {
+            // Resume below
+        }
+
+        ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+        resumed.write(partial.toByteArray(), 0, (int) checkpoint[1]);
+        LedgerConverter.Result result = newConverter().convert(new StringReader(ledger.toString()), resumed,
+                checkpoint[0], checkpoint[1], checkpoint[2], null);
+
+        assertArrayEquals(expected.toByteArray(), resumed.toByteArray());
+        assertEquals(LedgerConverter.CHUNK_ROWS * 3 + 17, result.rows);
+        assertEquals(uninterrupted.totalMinor, result.totalMinor);
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_millionRowLedger() throws IOException {
+        final int rows = 1_000_000;
+        final String[] currencies = { "EUR", "TRY", "JPY", "USD" };
+
+        // Synthetic ledger generated on the fly, so the test itself stays in constant memory
+        Reader ledger = new Reader() {
+            private final StringBuilder pending = new StringBuilder("date,description,amount,currency\n");
+            private int row;
+            private int offset;
+
+            @Override
+            public int read(char[] buffer, int off, int len) {
+                if (offset == pending.length()) {
+                    if (row == rows) {
+                        return -1;
+                    }
+                    pending.setLength(0);
+                    offset = 0;
+                    for (int i = 0; i < 1000 && row < rows; i++, row++) {
+                        pending.append("2024-04-25,Payment ").append(row).append(',')
+                                .append(row % 10_000).append('.').append(row % 100).append(',')
+                                .append(currencies[row % currencies.length]).append('\n');
+                    }
+                }
+                int count = Math.min(len, pending.length() - offset);
+                pending.getChars(offset, offset + count, buffer, off);
+                offset += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        long[] written = new long[1];
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        };
+
+        LedgerConverter.Result result = newConverter().convert(ledger, sink, 0, 0, 0, null);
+
+        System.out.println("Ledger: " + result.rows + " rows in " + result.elapsedMs + "ms, "
+                + result.getRowsPerSecond() + " rows/s, " + written[0] / (1024 * 1024) + " MiB written");
+        assertEquals(rows, result.rows);
+        assertEquals(0, result.failedRows);
+        assertEquals(written[0], result.outputBytes);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.currencyconverter.data.money;
+
+import com.example.currencyconverter.Benchmark;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.*;
+
+public class MoneyTest {
+
+    @Test
+    public void digits_followIso4217() {
+        assertEquals(2, CurrencyUnits.digits("USD"));
+        assertEquals(0, CurrencyUnits.digits("JPY"));
+        assertEquals(3, CurrencyUnits.digits("KWD"));
+        assertEquals(CurrencyUnits.DEFAULT_DIGITS, CurrencyUnits.digits("XYZ"));
+        assertEquals(1000, CurrencyUnits.scale("BHD"));
+    }
+
+    @Test
+    public void parse_isExactAndRoundsDroppedDigits() {
+        assertEquals(1234, Money.parse("12.34", 2, Money.DEFAULT_ROUNDING));
+        assertEquals(1230, Money.parse(" 12.3 ", 2, Money.DEFAULT_ROUNDING));
+        assertEquals(1200, Money.parse("12", 2, Money.DEFAULT_ROUNDING));
+        assertEquals(-50, Money.parse("-.5", 2, Money.DEFAULT_ROUNDING));
+        assertEquals(1500, Money.parse("1500", 0, Money.DEFAULT_ROUNDING));
+        assertEquals(1250, Money.parse("1.25", 3, Money.DEFAULT_ROUNDING));
+
+        // Half-even on the first dropped digit, sticky on the rest
+        assertEquals(2, Money.parse("0.025", 2, RoundingMode.HALF_EVEN));
+        assertEquals(4, Money.parse("0.035", 2, RoundingMode.HALF_EVEN));
+        assertEquals(3, Money.parse("0.0251", 2, RoundingMode.HALF_EVEN));
+        assertEquals(3, Money.parse("0.025", 2, RoundingMode.HALF_UP));
+        assertEquals(2, Money.parse("0.025", 2, RoundingMode.HALF_DOWN));
+        assertEquals(-2, Money.parse("-0.011", 2, RoundingMode.FLOOR));
+        assertEquals(-1, Money.parse("-0.011", 2, RoundingMode.CEILING));
+        assertEquals(2, Money.parse("1.5", 0, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    public void parse_rejectsGarbage() {
+        for (String text : new String[] { "", "-", ".", "1.2.3", "1e5", "12,5", "abc" }) {
+            try {
+                Money.parse(text, 2, Money.DEFAULT_ROUNDING);
+                fail("Parsed '" + text + "'");
+            } catch (NumberFormatException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void parse_overflowThrows() {
+        Money.parse("999999999999999999", 2, Money.DEFAULT_ROUNDING);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void round_unnecessaryThrowsWhenInexact() {
+        Money.round(1.5, RoundingMode.UNNECESSARY);
+    }
+
+    @Test
+    public void round_matchesBigDecimal() {
+        RoundingMode[] modes = { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN };
+        double[] values = { 0, 0.5, 1.5, 2.5, -0.5, -2.5, 2.4999, -2.5001, 7.0, 123456.75 };
+        for (RoundingMode mode : modes) {
+            for (double value : values) {
+                long expected = new BigDecimal(value).setScale(0, mode).longValueExact();
+                assertEquals(mode + " " + value, expected, Money.round(value, mode));
+            }
+        }
+    }
+
+    @Test
+    public void convert_acrossDifferentMinorUnits() {
+        // 10.00 USD -> JPY at 150.123
+        assertEquals(1501, Money.convert(1000, "USD", "JPY", 150.123, Money.DEFAULT_ROUNDING));
+        // 1500 JPY -> USD at 1/150
+        assertEquals(1000, Money.convert(1500, "JPY", "USD", 1 / 150.0, Money.DEFAULT_ROUNDING));
+        // 100.00 USD -> KWD at 0.30712
+        assertEquals(30712, Money.convert(10000, "USD", "KWD", 0.30712, Money.DEFAULT_ROUNDING));
+    }
+
+    @Test
+    public void format_padsFractionToCurrencyDigits() {
+        assertEquals("12.05", Money.format(1205, "USD"));
+        assertEquals("-0.07", Money.format(-7, "EUR"));
+        assertEquals("0.00", Money.format(0, "USD"));
+        assertEquals("1500", Money.format(1500, "JPY"));
+        assertEquals("1.005", Money.format(1005, "KWD"));
+        assertEquals("0.010", Money.format(10, "KWD"));
+    }
+
+    @Test
+    public void sum_isExactWhereDoubleDrifts() {
+        long[] minor = new long[1000];
+        double doubleTotal = 0;
+        for (int i = 0; i < minor.length; i++) {
+            minor[i] = 10;
+            doubleTotal += 0.10;
+        }
+        assertEquals(10000, Money.sum(minor, minor.length));
+        assertNotEquals(100.0, doubleTotal, 0);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void sum_overflowThrows() {
+        Money.sum(new long[] { Long.MAX_VALUE, 1 }, 2);
+    }
+
+    // Fixed point rounds per amount exactly like BigDecimal, without allocating
+    @Test
+    public void convertAndSum_roundsPerAmountLikeBigDecimal() {
+        int count = 100_000;
+        double rate = 0.9173;
+        BigDecimal decimalRate = BigDecimal.valueOf(rate);
+        long fixedTotal = 0;
+        BigDecimal decimalTotal = BigDecimal.ZERO;
+        for (int i = 0; i < count; i++) {
+            long minor = amountMinor(i);
+            fixedTotal += Money.convert(minor, 2, 2, rate, Money.DEFAULT_ROUNDING);
+            decimalTotal = decimalTotal.add(BigDecimal.valueOf(minor, 2).multiply(decimalRate)
+                    .setScale(2, RoundingMode.HALF_EVEN));
+        }
+        assertEquals(decimalTotal.unscaledValue().longValueExact(), fixedTotal);
+    }
+
+    private static long amountMinor(int i) {
+        return 100 + (i * 7919L) % 1_000_000;
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_fixedPointAgainstDoubleAndBigDecimal() {
+        int count = 100_000;
+        long[] minor = new long[count];
+        double[] amounts = new double[count];
+        BigDecimal[] decimals = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            minor[i] = amountMinor(i);
+            amounts[i] = minor[i] / 100.0;
+            decimals[i] = BigDecimal.valueOf(minor[i], 2);
+        }
+        double rate = 0.9173;
+        BigDecimal decimalRate = BigDecimal.valueOf(rate);
+
+        long fixedTotal = 0;
+        long fixedNs = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            fixedTotal = 0;
+            for (int i = 0; i < count; i++) {
+                fixedTotal += Money.convert(minor[i], 2, 2, rate, Money.DEFAULT_ROUNDING);
+            }
+            fixedNs = Math.min(fixedNs, System.nanoTime() - start);
+        }
+
+        double doubleTotal = 0;
+        long doubleNs = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            doubleTotal = 0;
+            for (int i = 0; i < count; i++) {
+                doubleTotal += amounts[i] * rate;
+            }
+            doubleNs = Math.min(doubleNs, System.nanoTime() - start);
+        }
+
+        BigDecimal decimalTotal = BigDecimal.ZERO;
+        long decimalNs = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            decimalTotal = BigDecimal.ZERO;
+            for (int i = 0; i < count; i++) {
+                decimalTotal = decimalTotal.add(decimals[i].multiply(decimalRate).setScale(2, RoundingMode.HALF_EVEN));
+            }
+            decimalNs = Math.min(decimalNs, System.nanoTime() - start);
+        }
+
+        System.out.println("Convert+sum of " + count + ": long " + fixedNs / 1000 + "us, double "
+                + doubleNs / 1000 + "us, BigDecimal " + decimalNs / 1000 + "us");
+
+        assertEquals(decimalTotal.unscaledValue().longValueExact(), fixedTotal);
+        assertEquals(fixedTotal / 100.0, doubleTotal, 1.0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.currencyconverter.data.rates;
+
+import com.example.currencyconverter.Benchmark;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+public class BatchConverterTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static BatchConverter newConverter() {
+        RateTable usd = new RateTable.Builder("USD").put("EUR", 0.5).put("TRY", 30.0).put("JPY", 150.0)
+                .build(1000L);
+        return new BatchConverter(new CrossRateEngine(usd));
+    }
+
+    @Test
+    public void convertToAll_fillsEveryCurrency() {
+        BatchConverter converter = newConverter();
+        double[] out = new double[converter.capacity()];
+
+        int converted = converter.convertToAll(10, CurrencyCodes.ordinalOf("EUR"), out);
+
+        assertEquals(4, converted);
+        assertEquals(20.0, out[CurrencyCodes.ordinalOf("USD")], DELTA);
+        assertEquals(600.0, out[CurrencyCodes.ordinalOf("TRY")], DELTA);
+        assertEquals(10.0, out[CurrencyCodes.ordinalOf("EUR")], DELTA);
+    }
+
+    @Test
+    public void convertTriples_writesIntoReusedBuffer() {
+        BatchConverter converter = newConverter();
+        int[] from = BatchConverter.resolve(new String[] { "USD", "TRY", "XXX" }, 3, new int[3]);
+        int[] to = BatchConverter.resolve(new String[] { "JPY", "EUR", "USD" }, 3, new int[3]);
+        double[] out = BatchConverter.ensureCapacity(null, 3);
+
+        int converted = converter.convert(new double[] { 2, 60, 1 }, from, to, 3, out);
+
+        assertEquals(2, converted);
+        assertEquals(300.0, out[0], DELTA);
+        assertEquals(1.0, out[1], DELTA);
+        assertTrue(Double.isNaN(out[2]));
+        assertSame(out, BatchConverter.ensureCapacity(out, 3));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_hundredsOfConversionsPerRefresh() {
+        RateTable.Builder builder = new RateTable.Builder("USD");
+        for (int i = 0; i < 160; i++) {
+            builder.put("B" + (char) ('A' + i / 26) + (char) ('A' + i % 26), 1 + i * 0.37);
+        }
+        BatchConverter converter = new BatchConverter(new CrossRateEngine(builder.build(0L)));
+
+        int count = 500;
+        double[] amounts = new double[count];
+        int[] from = new int[count];
+        int[] to = new int[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = 100 + i;
+            from[i] = CurrencyCodes.ordinalOf("B" + (char) ('A' + i % 6) + (char) ('A' + i % 26));
+            to[i] = CurrencyCodes.ordinalOf("USD");
+        }
+        double[] out = new double[count];
+
+        int iterations = 20_000;
+        long start = System.nanoTime();
+        double checksum = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            converter.convert(amounts, from, to, count, out);
+            checksum += out[iteration % count];
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Batch of " + count + ": " + elapsed / iterations + "ns per refresh (checksum "
+                + (long) checksum + ")");
+        assertTrue(checksum > 0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.currencyconverter.data.rates;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CrossRateEngineTest {
+
+    private static final double DELTA = 1e-9;
+
+    private CrossRateEngine newEngine() {
+        Map<String, Double> usd = new HashMap<>();
+        usd.put("EUR", 0.5);
+        usd.put("TRY", 30.0);
+        usd.put("JPY", 150.0);
+        return new CrossRateEngine(RateTable.fromMap("USD", usd, 1000L));
+    }
+
+    @Test
+    public void pivotRow_matchesSnapshot() {
+        CrossRateEngine engine = newEngine();
+        assertEquals(0.5, engine.getRate("USD", "EUR"), DELTA);
+        assertEquals(1.0, engine.getRate("USD", "USD"), DELTA);
+        assertEquals(4, engine.size());
+    }
+
+    @Test
+    public void inverseAndCrossRates_areDerived() {
+        CrossRateEngine engine = newEngine();
+        assertEquals(2.0, engine.getRate("EUR", "USD"), DELTA);
+        assertEquals(60.0, engine.getRate("EUR", "TRY"), DELTA);
+        assertEquals(5.0, engine.getRate("TRY", "JPY"), DELTA);
+        assertEquals(1.0, engine.getRate("JPY", "JPY"), DELTA);
+    }
+
+    @Test
+    public void rowTable_convertsByOrdinal() {
+        RateTable eur = newEngine().getRatesFor("EUR");
+        assertNotNull(eur);
+        assertEquals("EUR", eur.getBaseCurrency());
+        assertEquals(1000L, eur.getTimestamp());
+        assertEquals(600.0, eur.convert(10, CurrencyCodes.ordinalOf("TRY")), DELTA);
+    }
+
+    @Test
+    public void unknownCurrency_isNaN() {
+        CrossRateEngine engine = newEngine();
+        assertTrue(Double.isNaN(engine.getRate("USD", "XXX")));
+        assertNull(engine.getRatesFor("XXX"));
+        assertFalse(engine.supports("XXX"));
+    }
+}
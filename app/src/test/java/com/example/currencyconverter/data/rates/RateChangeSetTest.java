@@ -0,0 +1,55 @@
+package com.example.currencyconverter.data.rates;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateChangeSetTest {
+
+    @Test
+    public void identicalSnapshots_haveNoChanges() {
+        RateTable previous = new RateTable.Builder("USD").put("EUR", 0.9).put("TRY", 32.0).build(1000L);
+        RateTable current = new RateTable.Builder("USD").put("EUR", 0.9).put("TRY", 32.0).build(2000L);
+
+        RateChangeSet changes = RateChangeSet.diff(previous, current);
+        assertTrue(changes.isEmpty());
+        assertEquals(2000L, changes.getTimestamp());
+    }
+
+    @Test
+    public void movedAddedAndRemovedRates_areReported() {
+        RateTable previous = new RateTable.Builder("USD").put("EUR", 0.9).put("TRY", 32.0).put("GBP", 0.8)
+                .build(1000L);
+        RateTable current = new RateTable.Builder("USD").put("EUR", 0.9).put("TRY", 32.5).put("JPY", 150.0)
+                .build(2000L);
+
+        RateChangeSet changes = RateChangeSet.diff(previous, current);
+        assertEquals(3, changes.size());
+        assertTrue(changes.isCurrencySetChanged());
+        assertFalse(changes.contains(CurrencyCodes.ordinalOf("EUR")));
+
+        for (int i = 0; i < changes.size(); i++) {
+            String currency = changes.getCurrency(i);
+            if (currency.equals("TRY")) {
+                assertEquals(32.0, changes.getOldRate(i), 0);
+                assertEquals(32.5, changes.getNewRate(i), 0);
+            } else if (currency.equals("GBP")) {
+                assertTrue(Double.isNaN(changes.getNewRate(i)));
+            } else {
+                assertEquals("JPY", currency);
+                assertTrue(Double.isNaN(changes.getOldRate(i)));
+            }
+        }
+    }
+
+    @Test
+    public void missingPrevious_reportsEveryRateAsAdded() {
+        RateTable current = new RateTable.Builder("USD").put("EUR", 0.9).build(1000L);
+        assertEquals(current.size(), RateChangeSet.diff(null, current).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentBases_cannotBeDiffed() {
+        RateChangeSet.diff(new RateTable.Builder("USD").build(0L), new RateTable.Builder("EUR").build(0L));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.currencyconverter.data.remote.api;
+
+import com.example.currencyconverter.Benchmark;
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the streaming rate decoder against the previous reflective Gson
+ * binding on a recorded provider payload (src/test/resources/latest_usd.json)
+ */
+public class ExchangeRateConverterBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static String payload;
+
+    /**
+     * Shape of the response model before the streaming decoder
+     */
+    static class GsonRatesResponse {
+        @SerializedName("conversion_rates")
+        Map<String, Double> rates;
+    }
+
+    private interface Parser {
+        RateTable parse() throws IOException;
+    }
+
+    @BeforeClass
+    public static void loadPayload() throws IOException {
+        try (InputStream in = ExchangeRateConverterBenchmarkTest.class.getClassLoader()
+                .getResourceAsStream("latest_usd.json")) {
+            assertNotNull("latest_usd.json missing from test resources", in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            payload = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void streamingDecoder_capturesMetadataAndRates() throws IOException {
+        ExchangeRateResponse response = ExchangeRateConverterFactory.parse(new StringReader(payload));
+
+        assertTrue(response.isSuccess());
+        assertEquals("USD", response.getBaseCode());
+        assertEquals(1714003201L, response.getLastUpdateUnix());
+        assertEquals(1714089601L, response.getNextUpdateUnix());
+        assertEquals(1714003201000L, response.getRates().getProviderTimestamp());
+        assertEquals(162, response.getRates().size());
+        assertEquals(32.2145, response.getRates().getRate("TRY"), 1e-12);
+    }
+
+    @Test
+    public void streamingDecoder_matchesGsonBinding() throws IOException {
+        RateTable streamed = ExchangeRateConverterFactory.parse(new StringReader(payload)).getRates();
+        GsonRatesResponse bound = new Gson().fromJson(payload, GsonRatesResponse.class);
+
+        assertEquals(bound.rates.size(), streamed.size());
+        for (Map.Entry<String, Double> entry : bound.rates.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue(), streamed.getRate(entry.getKey()), 0.0);
+        }
+    }
+
+    // Allocation is deterministic enough to assert in every run; timing is only a benchmark
+    @Test
+    public void streamingDecoder_allocatesLessThanGsonBinding() throws IOException {
+        long[] gsonResult = measure(gsonPath());
+        long[] streamingResult = measure(streamingPath());
+
+        if (gsonResult[1] > 0 && streamingResult[1] > 0) {
+            assertTrue("Streaming decoder should allocate less than Gson binding",
+                    streamingResult[1] < gsonResult[1]);
+        }
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_streamingVsGson() throws IOException {
+        long[] gsonResult = measure(gsonPath());
+        long[] streamingResult = measure(streamingPath());
+
+        System.out.printf("Gson reflective: %,d ns/parse, %,d bytes/parse%n", gsonResult[0], gsonResult[1]);
+        System.out.printf("Streaming:       %,d ns/parse, %,d bytes/parse%n", streamingResult[0], streamingResult[1]);
+    }
+
+    private static Parser gsonPath() {
+        Gson gson = new Gson();
+        return () -> RateTable.fromMap("USD", gson.fromJson(payload, GsonRatesResponse.class).rates, 0L);
+    }
+
+    private static Parser streamingPath() {
+        return () -> ExchangeRateConverterFactory.parse(new StringReader(payload)).getRates();
+    }
+
+    /**
+     * @return { nanoseconds per parse, bytes allocated per parse (0 if unsupported) }
+     */
+    private static long[] measure(Parser parser) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            parser.parse();
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += parser.parse().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+
+        assertTrue(sink > 0);
+        return new long[] { elapsed / ITERATIONS, bytesBefore < 0 ? 0 : bytes / ITERATIONS };
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.currencyconverter.data.remote.api;
+
+import com.example.currencyconverter.data.remote.model.ExchangeRateResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * HTTP cache, revalidation and 304 handling against a local MockWebServer
+ */
+public class RetrofitClientCacheTest {
+
+    private static final String BODY = "{\"result\":\"success\",\"base_code\":\"USD\","
+            + "\"time_last_update_unix\":1714003201,"
+            + "\"conversion_rates\":{\"USD\":1,\"EUR\":0.92,\"TRY\":32.2}}";
+    // Provider timestamp of BODY
+    private static final Long SNAPSHOT = 1714003201000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private CurrencyApiService api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        api = RetrofitClient.create(server.url("/").toString(), temporaryFolder.newFolder("http_cache"))
+                .create(CurrencyApiService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void unchangedSnapshot_isRevalidatedAndNotReparsed() throws Exception {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        Response<ExchangeRateResponse> first = api.getExchangeRates("key", "USD", null).execute();
+        assertTrue(first.body().isSuccess());
+        assertEquals(3, first.body().getRates().size());
+
+        Response<ExchangeRateResponse> second = api.getExchangeRates("key", "USD", SNAPSHOT).execute();
+        assertTrue(second.isSuccessful());
+        assertTrue(second.body().isNotModified());
+        assertNull(second.body().getRates());
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+        assertEquals("gzip", revalidation.getHeader("Accept-Encoding"));
+        assertNull(revalidation.getHeader(NotModifiedInterceptor.HEADER_HAVE_SNAPSHOT));
+    }
+
+    @Test
+    public void notModified_withoutLocalSnapshot_servesCachedBody() throws Exception {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Last-Modified", "Thu, 25 Apr 2024 00:00:01 GMT"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        api.getExchangeRates("key", "USD", null).execute();
+        Response<ExchangeRateResponse> second = api.getExchangeRates("key", "USD", null).execute();
+
+        assertFalse(second.body().isNotModified());
+        assertEquals(32.2, second.body().getRates().getRate("TRY"), 1e-12);
+
+        server.takeRequest();
+        assertEquals("Thu, 25 Apr 2024 00:00:01 GMT", server.takeRequest().getHeader("If-Modified-Since"));
+    }
+
+    @Test
+    public void notModified_forAnOlderLocalSnapshot_servesCachedBody() throws Exception {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        api.getExchangeRates("key", "USD", null).execute();
+        // The cache holds BODY, but the caller's snapshot is from an earlier update
+        Response<ExchangeRateResponse> second = api.getExchangeRates("key", "USD", SNAPSHOT - 86_400_000L)
+                .execute();
+
+        assertFalse(second.body().isNotModified());
+        assertEquals(SNAPSHOT.longValue(), second.body().getRates().getProviderTimestamp());
+        assertEquals(32.2, second.body().getRates().getRate("TRY"), 1e-12);
+    }
+
+    @Test
+    public void changedSnapshot_isDownloadedInFull() throws Exception {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setBody(BODY.replace("32.2", "33.0")).setHeader("ETag", "\"v2\""));
+
+        api.getExchangeRates("key", "USD", null).execute();
+        Response<ExchangeRateResponse> second = api.getExchangeRates("key", "USD", SNAPSHOT).execute();
+
+        assertFalse(second.body().isNotModified());
+        assertEquals(33.0, second.body().getRates().getRate("TRY"), 1e-12);
+    }
+}
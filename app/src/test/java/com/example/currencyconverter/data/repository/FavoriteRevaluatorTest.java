@@ -0,0 +1,179 @@
+package com.example.currencyconverter.data.repository;
+
+import com.example.currencyconverter.Benchmark;
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.RateTable;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FavoriteRevaluatorTest {
+
+    private static final long USD_EUR = FavoriteRevaluator.pairKey("USD", "EUR");
+    private static final long EUR_TRY = FavoriteRevaluator.pairKey("EUR", "TRY");
+    private static final long GBP_JPY = FavoriteRevaluator.pairKey("GBP", "JPY");
+
+    private static CrossRateEngine engine(double eur, double tryRate, double gbp, double jpy) {
+        return new CrossRateEngine(new RateTable.Builder("USD").put("EUR", eur).put("TRY", tryRate)
+                .put("GBP", gbp).put("JPY", jpy).build(1000L));
+    }
+
+    private static FavoriteConversion favorite(int id, String from, String to, long amountMinor, long resultMinor) {
+        FavoriteConversion favorite = new FavoriteConversion(from, to, amountMinor, resultMinor, id);
+        favorite.setId(id);
+        return favorite;
+    }
+
+    private static FavoriteRevaluator revaluator() {
+        FavoriteRevaluator revaluator = new FavoriteRevaluator();
+        revaluator.setFavorites(Arrays.asList(
+                favorite(1, "USD", "EUR", 10000, 9000),
+                favorite(2, "EUR", "TRY", 10000, 350000),
+                favorite(3, "GBP", "JPY", 10000, 19000),
+                favorite(4, "USD", "EUR", 2500, 2250)));
+        return revaluator;
+    }
+
+    @Test
+    public void firstSnapshot_valuesEveryFavorite() {
+        FavoriteRevaluator revaluator = revaluator();
+        assertEquals(FavoriteRevaluator.UNKNOWN, revaluator.getCurrentMinor(USD_EUR, 1));
+
+        FavoriteRevaluator.Revaluation revaluation = revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+        assertEquals(3, revaluation.getPairCount());
+        assertEquals(4, revaluation.getFavoriteCount());
+
+        assertEquals(9200, revaluator.getCurrentMinor(USD_EUR, 1));
+        assertEquals(2300, revaluator.getCurrentMinor(USD_EUR, 4));
+        // 100 EUR = 100 / 0.92 * 32 TRY
+        assertEquals(347826, revaluator.getCurrentMinor(EUR_TRY, 2));
+        // JPY has no minor units: 100 GBP = 18750 JPY
+        assertEquals(18750, revaluator.getCurrentMinor(GBP_JPY, 3));
+    }
+
+    @Test
+    public void onlyPairsWithAMovedCurrency_areRecomputed() {
+        FavoriteRevaluator revaluator = revaluator();
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+
+        // Only TRY moved: EUR/TRY changes, USD/EUR and GBP/JPY do not
+        FavoriteRevaluator.Revaluation revaluation = revaluator.revalue(engine(0.92, 33.0, 0.8, 150.0));
+        assertEquals(1, revaluation.getPairCount());
+        assertEquals(1, revaluation.getFavoriteCount());
+        assertTrue(revaluation.contains(EUR_TRY));
+        assertFalse(revaluation.contains(USD_EUR));
+        assertFalse(revaluation.contains(GBP_JPY));
+
+        // Both sides of GBP/JPY moved: the pair is recomputed once
+        revaluation = revaluator.revalue(engine(0.92, 33.0, 0.81, 151.0));
+        assertEquals(1, revaluation.getPairCount());
+        assertTrue(revaluation.contains(GBP_JPY));
+
+        // Same rates again
+        assertTrue(revaluator.revalue(engine(0.92, 33.0, 0.81, 151.0)).isEmpty());
+    }
+
+    @Test
+    public void valueText_showsCurrentValueAndChangeSinceSaved() {
+        FavoriteRevaluator revaluator = revaluator();
+        assertNull(revaluator.getValueText(USD_EUR, 1));
+
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+        assertEquals("Now 92.00 EUR (+2.22%)", revaluator.getValueText(USD_EUR, 1));
+        assertEquals("Now 18750 JPY (-1.32%)", revaluator.getValueText(GBP_JPY, 3));
+        assertNull(revaluator.getValueText(USD_EUR, 99));
+    }
+
+    @Test
+    public void newIndex_isValuedAtTheLastSnapshot() {
+        FavoriteRevaluator revaluator = revaluator();
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+
+        FavoriteRevaluator.Revaluation revaluation = revaluator.setFavorites(Arrays.asList(
+                favorite(1, "USD", "EUR", 10000, 9000),
+                favorite(5, "USD", "GBP", 10000, 7900)));
+        assertEquals(2, revaluation.getPairCount());
+        assertEquals(8000, revaluator.getCurrentMinor(FavoriteRevaluator.pairKey("USD", "GBP"), 5));
+        assertEquals(FavoriteRevaluator.UNKNOWN, revaluator.getCurrentMinor(EUR_TRY, 2));
+    }
+
+    @Test
+    public void addAndRemove_updateOnlyTheirPairs() {
+        FavoriteRevaluator revaluator = revaluator();
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+
+        FavoriteRevaluator.Revaluation added = revaluator.add(Arrays.asList(favorite(6, "USD", "EUR", 500, 450)));
+        assertEquals(1, added.getPairCount());
+        assertTrue(added.contains(USD_EUR));
+        assertEquals(460, revaluator.getCurrentMinor(USD_EUR, 6));
+        assertEquals(9200, revaluator.getCurrentMinor(USD_EUR, 1));
+
+        FavoriteRevaluator.Revaluation removed = revaluator.remove(Arrays.asList(1, 3, 99));
+        assertEquals(2, removed.getPairCount());
+        assertEquals(FavoriteRevaluator.UNKNOWN, revaluator.getCurrentMinor(USD_EUR, 1));
+        assertEquals(460, revaluator.getCurrentMinor(USD_EUR, 6));
+
+        // GBP/JPY is gone from the index: moving JPY recomputes nothing
+        assertTrue(revaluator.revalue(engine(0.92, 32.0, 0.8, 151.0)).isEmpty());
+
+        assertEquals(2, revaluator.clear().getPairCount());
+        assertEquals(FavoriteRevaluator.UNKNOWN, revaluator.getCurrentMinor(EUR_TRY, 2));
+    }
+
+    @Test
+    public void badRows_doNotAbortTheBatch() {
+        FavoriteRevaluator revaluator = new FavoriteRevaluator();
+        FavoriteRevaluator.Revaluation revaluation = revaluator.setFavorites(Arrays.asList(
+                favorite(1, null, "EUR", 10000, 9000),
+                favorite(2, "USD", null, 10000, 9000),
+                favorite(3, "USD", "JPY", Long.MAX_VALUE, 0),
+                favorite(4, "USD", "JPY", 10000, 15000)));
+        assertEquals(1, revaluation.getPairCount());
+        assertNotEquals(FavoriteRevaluator.pairKey(null, "EUR"), FavoriteRevaluator.pairKey("USD", null));
+
+        // Long.MAX_VALUE USD cents is 1.5x that in JPY, past a long; the row keeps its (unknown) value
+        long usdJpy = FavoriteRevaluator.pairKey("USD", "JPY");
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+        assertEquals(FavoriteRevaluator.UNKNOWN, revaluator.getCurrentMinor(usdJpy, 3));
+        assertEquals(15000, revaluator.getCurrentMinor(usdJpy, 4));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_incrementalRevaluationOverManyFavorites() {
+        String[] codes = { "USD", "EUR", "TRY", "GBP", "JPY" };
+        List<FavoriteConversion> favorites = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            favorites.add(favorite(i + 1, codes[i % codes.length], codes[(i / codes.length + 1 + i) % codes.length],
+                    1000L + i, 900L + i));
+        }
+        FavoriteRevaluator revaluator = new FavoriteRevaluator();
+        revaluator.setFavorites(favorites);
+        revaluator.revalue(engine(0.92, 32.0, 0.8, 150.0));
+
+        // Snapshots alternate in one currency
+        CrossRateEngine[] snapshots = { engine(0.92, 33.0, 0.8, 150.0), engine(0.92, 32.0, 0.8, 150.0) };
+        for (int i = 0; i < 2000; i++) {
+            revaluator.revalue(snapshots[i % 2]);
+        }
+        long start = System.nanoTime();
+        int recomputed = 0;
+        int rounds = 1000;
+        for (int i = 0; i < rounds; i++) {
+            recomputed += revaluator.revalue(snapshots[i % 2]).getFavoriteCount();
+        }
+        long perRound = (System.nanoTime() - start) / rounds;
+
+        System.out.printf("Revaluation of %,d favorites: %,d ns/snapshot, %,d recomputed/snapshot%n",
+                favorites.size(), perRound, recomputed / rounds);
+        // Only pairs touching TRY moved
+        assertTrue(recomputed / rounds < favorites.size());
+    }
+}
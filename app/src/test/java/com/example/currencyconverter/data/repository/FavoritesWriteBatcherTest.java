@@ -0,0 +1,226 @@
+package com.example.currencyconverter.data.repository;
+
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FavoritesWriteBatcherTest {
+
+    private final ExecutorService writeThread = Executors.newSingleThreadExecutor();
+    private final List<List<FavoritesWriteBatcher.Run>> batches = Collections.synchronizedList(new ArrayList<>());
+    private CountDownLatch applied = new CountDownLatch(1);
+    private FavoritesWriteBatcher batcher;
+
+    @After
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        writeThread.shutdownNow();
+    }
+
+    private FavoritesWriteBatcher newBatcher(long windowMs) {
+        batcher = new FavoritesWriteBatcher(runs -> {
+            batches.add(runs);
+            applied.countDown();
+        }, writeThread, windowMs);
+        return batcher;
+    }
+
+    // Counters are updated after the writer returns
+    private void awaitWriteThread() throws InterruptedException {
+        try {
+            writeThread.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static FavoriteConversion favorite(int id) {
+        FavoriteConversion favorite = new FavoriteConversion("USD", "EUR", 100, 92, id);
+        favorite.setId(id);
+        return favorite;
+    }
+
+    @Test
+    public void mutationsWithinTheWindow_areAppliedAsOneBatch() throws InterruptedException {
+        FavoritesWriteBatcher batcher = newBatcher(200);
+        for (int i = 1; i <= 20; i++) {
+            batcher.insert(Collections.singletonList(favorite(i)));
+        }
+        batcher.deleteByIds(Arrays.asList(3, 4));
+        batcher.deleteByIds(Collections.singletonList(5));
+        batcher.insert(Collections.singletonList(favorite(21)));
+
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+
+        // Consecutive mutations of a kind merge; kinds keep their order
+        List<FavoritesWriteBatcher.Run> runs = batches.get(0);
+        assertEquals(3, runs.size());
+        assertEquals(FavoritesWriteBatcher.Kind.INSERT, runs.get(0).getKind());
+        assertEquals(20, runs.get(0).getFavorites().size());
+        assertEquals(FavoritesWriteBatcher.Kind.DELETE_BY_ID, runs.get(1).getKind());
+        assertEquals(Arrays.asList(3, 4, 5), runs.get(1).getIds());
+        assertEquals(FavoritesWriteBatcher.Kind.INSERT, runs.get(2).getKind());
+        awaitWriteThread();
+        assertEquals(24, batcher.getMutationCount());
+    }
+
+    @Test
+    public void clear_dropsEverythingQueuedBeforeIt() throws InterruptedException {
+        FavoritesWriteBatcher batcher = newBatcher(200);
+        batcher.insert(Arrays.asList(favorite(1), favorite(2)));
+        batcher.delete(Collections.singletonList(favorite(7)));
+        batcher.clear();
+        batcher.insert(Collections.singletonList(favorite(3)));
+
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        List<FavoritesWriteBatcher.Run> runs = batches.get(0);
+        assertEquals(2, runs.size());
+        assertEquals(FavoritesWriteBatcher.Kind.CLEAR, runs.get(0).getKind());
+        assertEquals(FavoritesWriteBatcher.Kind.INSERT, runs.get(1).getKind());
+        assertEquals(1, runs.get(1).getFavorites().size());
+    }
+
+    @Test
+    public void fullBatch_isFlushedWithoutWaitingForTheWindow() throws InterruptedException {
+        FavoritesWriteBatcher batcher = newBatcher(60_000);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < FavoritesWriteBatcher.MAX_BATCH; i++) {
+            ids.add(i);
+        }
+        batcher.deleteByIds(ids);
+
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        assertEquals(FavoritesWriteBatcher.MAX_BATCH, batches.get(0).get(0).getIds().size());
+    }
+
+    @Test
+    public void flush_appliesPendingMutationsAtOnce() throws InterruptedException {
+        FavoritesWriteBatcher batcher = newBatcher(60_000);
+        batcher.insert(Collections.singletonList(favorite(1)));
+        batcher.flush();
+
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        awaitWriteThread();
+        assertEquals(1, batcher.getBatchCount());
+
+        // Nothing left for the window to apply
+        applied = new CountDownLatch(1);
+        batcher.flush();
+        assertFalse(applied.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void failedBatch_isRetriedAheadOfNewerMutations() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        batcher = new FavoritesWriteBatcher(runs -> {
+            if (calls.incrementAndGet() == 1) {
+                batcher.insert(Collections.singletonList(favorite(2)));
+                throw new IllegalStateException("disk I/O error");
+            }
+            batches.add(runs);
+            done.countDown();
+        }, writeThread, 50);
+        batcher.insert(Collections.singletonList(favorite(1)));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        List<FavoritesWriteBatcher.Run> runs = batches.get(0);
+        assertEquals(2, runs.size());
+        assertEquals(1, runs.get(0).getFavorites().get(0).getId());
+        assertEquals(2, runs.get(1).getFavorites().get(0).getId());
+        awaitWriteThread();
+        assertEquals(0, batcher.getFailedBatchCount());
+    }
+
+    @Test
+    public void mutationFlushedDuringAFailingBatch_waitsForItsRetry() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        batcher = new FavoritesWriteBatcher(runs -> {
+            if (calls.incrementAndGet() == 1) {
+                // The delete's window ends while the insert is still in flight
+                batcher.deleteByIds(Collections.singletonList(1));
+                sleep(200);
+                throw new IllegalStateException("disk I/O error");
+            }
+            batches.add(runs);
+            done.countDown();
+        }, writeThread, 20);
+        batcher.insert(Collections.singletonList(favorite(1)));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitWriteThread();
+        // The retried insert and the newer delete commit together, in order
+        assertEquals(1, batches.size());
+        List<FavoritesWriteBatcher.Run> runs = batches.get(0);
+        assertEquals(FavoritesWriteBatcher.Kind.INSERT, runs.get(0).getKind());
+        assertEquals(FavoritesWriteBatcher.Kind.DELETE_BY_ID, runs.get(1).getKind());
+    }
+
+    @Test
+    public void clearQueuedDuringAFailingBatch_supersedesIt() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        batcher = new FavoritesWriteBatcher(runs -> {
+            if (calls.incrementAndGet() == 1) {
+                batcher.clear();
+                sleep(200);
+                throw new IllegalStateException("disk I/O error");
+            }
+            batches.add(runs);
+            done.countDown();
+        }, writeThread, 20);
+        batcher.insert(Collections.singletonList(favorite(1)));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // Long enough for a stray retry to have run
+        sleep(200);
+        awaitWriteThread();
+        // The failed insert is not applied after the clear
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(FavoritesWriteBatcher.Kind.CLEAR, batches.get(0).get(0).getKind());
+        assertEquals(2, calls.get());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void batchFailingEveryAttempt_isDroppedAndCounted() throws InterruptedException {
+        CountDownLatch attempts = new CountDownLatch(FavoritesWriteBatcher.MAX_ATTEMPTS);
+        batcher = new FavoritesWriteBatcher(runs -> {
+            attempts.countDown();
+            throw new IllegalStateException("disk full");
+        }, writeThread, 20);
+        batcher.insert(Collections.singletonList(favorite(1)));
+
+        assertTrue(attempts.await(5, TimeUnit.SECONDS));
+        awaitWriteThread();
+        assertEquals(1, batcher.getFailedBatchCount());
+        assertEquals(0, batcher.getBatchCount());
+    }
+}
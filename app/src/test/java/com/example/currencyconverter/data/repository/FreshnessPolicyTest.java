@@ -0,0 +1,52 @@
+package com.example.currencyconverter.data.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FreshnessPolicyTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    @Test
+    public void classify_usesPerBaseBudgets() {
+        FreshnessPolicy policy = new FreshnessPolicy.Builder()
+                .setDefault(60 * MINUTE, 24 * 60 * MINUTE)
+                .setBase("TRY", 5 * MINUTE, 30 * MINUTE)
+                .build();
+        long now = 1_000_000_000L;
+
+        assertEquals(FreshnessPolicy.Freshness.FRESH, policy.classify("USD", now - 59 * MINUTE, now));
+        assertEquals(FreshnessPolicy.Freshness.STALE, policy.classify("USD", now - 60 * MINUTE, now));
+        assertEquals(FreshnessPolicy.Freshness.EXPIRED, policy.classify("USD", now - 24 * 60 * MINUTE, now));
+
+        assertEquals(FreshnessPolicy.Freshness.STALE, policy.classify("TRY", now - 6 * MINUTE, now));
+        assertEquals(FreshnessPolicy.Freshness.EXPIRED, policy.classify("TRY", now - 31 * MINUTE, now));
+
+        assertEquals(24 * 60 * MINUTE, policy.getMaxStaleMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsStaleShorterThanFresh() {
+        new FreshnessPolicy.Builder().setBase("USD", 10 * MINUTE, 5 * MINUTE);
+    }
+
+    @Test
+    public void metrics_reportCacheServedShare() {
+        FreshnessPolicy.Metrics metrics = FreshnessPolicy.defaults().getMetrics();
+        for (int i = 0; i < 90; i++) {
+            metrics.record(FreshnessPolicy.Freshness.FRESH);
+        }
+        for (int i = 0; i < 8; i++) {
+            metrics.record(FreshnessPolicy.Freshness.STALE);
+        }
+        metrics.record(FreshnessPolicy.Freshness.EXPIRED);
+        metrics.record(FreshnessPolicy.Freshness.EXPIRED);
+
+        assertEquals(90, metrics.getFreshCount());
+        assertEquals(8, metrics.getStaleCount());
+        assertEquals(2, metrics.getBlockedCount());
+        assertEquals(0.98, metrics.getCacheServedRatio(), 1e-9);
+        assertEquals("Freshness[fresh=90 (90%), stale=8 (8%), blocked=2 (2%)]", metrics.toString());
+    }
+}
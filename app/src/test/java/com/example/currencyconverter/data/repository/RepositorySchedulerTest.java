@@ -0,0 +1,80 @@
+package com.example.currencyconverter.data.repository;
+
+import com.example.currencyconverter.data.repository.RepositoryScheduler.Priority;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RepositorySchedulerTest {
+
+    @Test
+    public void userWorkJumpsQueuedBackgroundWork() throws Exception {
+        RepositoryScheduler scheduler = new RepositoryScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Occupy the only read thread, then queue behind it
+        CountDownLatch busy = new CountDownLatch(1);
+        scheduler.read(Priority.BACKGROUND, () -> {
+            busy.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+        scheduler.read(Priority.MAINTENANCE, () -> order.add("maintenance"));
+        scheduler.read(Priority.BACKGROUND, () -> order.add("background 1"));
+        scheduler.read(Priority.BACKGROUND, () -> order.add("background 2"));
+        scheduler.read(Priority.USER, () -> order.add("user"));
+        assertEquals(4, scheduler.getReadStats().getQueueDepth());
+
+        release.countDown();
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("user", "background 1", "background 2", "maintenance"), order);
+        assertEquals(0, scheduler.getReadStats().getQueueDepth());
+        assertEquals(4, scheduler.getReadStats().getMaxQueueDepth());
+        assertEquals(1, scheduler.getReadStats().getStartedCount(Priority.USER));
+    }
+
+    @Test
+    public void readsDoNotWaitForBlockedWriter() throws Exception {
+        RepositoryScheduler scheduler = new RepositoryScheduler(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch readDone = new CountDownLatch(1);
+
+        // A long bulk write plus more writes queued behind it
+        CountDownLatch busy = new CountDownLatch(1);
+        scheduler.write(Priority.BACKGROUND, () -> {
+            busy.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            scheduler.write(Priority.BACKGROUND, () -> { });
+        }
+        scheduler.read(Priority.USER, readDone::countDown);
+
+        assertTrue("User read queued behind writes", readDone.await(1, TimeUnit.SECONDS));
+        assertEquals(10, scheduler.getWriteStats().getQueueDepth());
+
+        release.countDown();
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(11, scheduler.getWriteStats().getStartedCount(Priority.BACKGROUND));
+        assertEquals(1, scheduler.getReadStats().getStartedCount(Priority.USER));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
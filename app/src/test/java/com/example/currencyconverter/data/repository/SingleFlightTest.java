@@ -0,0 +1,67 @@
+package com.example.currencyconverter.data.repository;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    private static final class Recorder implements SingleFlight.Callback<String> {
+        final List<String> results = new ArrayList<>();
+
+        @Override
+        public void onSuccess(String value) {
+            results.add(value);
+        }
+
+        @Override
+        public void onError(String message) {
+            results.add("error: " + message);
+        }
+    }
+
+    @Test
+    public void detachedCallerIsNotNotified() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        List<SingleFlight.Callback<String>> loads = new ArrayList<>();
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+
+        flight.execute("USD", loads::add, first);
+        flight.execute("USD", loads::add, second);
+        assertEquals(1, loads.size());
+
+        assertTrue(flight.detach("USD", first));
+        assertFalse(flight.isAbandoned("USD"));
+
+        loads.get(0).onSuccess("rates");
+        assertTrue(first.results.isEmpty());
+        assertEquals(1, second.results.size());
+        assertFalse(flight.detach("USD", second));
+        assertEquals(1, flight.getDetachedCount());
+    }
+
+    @Test
+    public void loadIsAbandonedOnceEveryCallerDetached() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        List<SingleFlight.Callback<String>> loads = new ArrayList<>();
+        Recorder caller = new Recorder();
+
+        flight.execute("USD", loads::add, caller);
+        flight.detach("USD", caller);
+        assertTrue(flight.isAbandoned("USD"));
+
+        // The loader still ends the flight; nobody hears about it
+        loads.get(0).onError("Cancelled");
+        assertFalse(flight.isInFlight("USD"));
+        assertFalse(flight.isAbandoned("USD"));
+        assertTrue(caller.results.isEmpty());
+
+        // A later call starts a new load
+        flight.execute("USD", loads::add, caller);
+        assertEquals(2, loads.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.currencyconverter.ui.conversion;
+
+import android.content.Context;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.currencyconverter.data.rates.CrossRateEngine;
+import com.example.currencyconverter.data.rates.RateTable;
+import com.example.currencyconverter.data.repository.CurrencyRepository;
+import com.example.currencyconverter.data.repository.RateRequest;
+import com.example.currencyconverter.ui.common.UiState;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CurrencyConverterViewModelTest {
+
+    // 1e14 USD fits in minor units; at 16,000 IDR per USD the result does not
+    private static final String HUGE_AMOUNT = "100000000000000";
+
+    @Rule
+    public InstantTaskExecutorRule instantExecutor = new InstantTaskExecutorRule();
+
+    private final MutableLiveData<CrossRateEngine> loadedRates = new MutableLiveData<>();
+    private CurrencyRepository repository;
+    private CurrencyConverterViewModel viewModel;
+
+    @Before
+    public void setUp() {
+        repository = mock(CurrencyRepository.class);
+        when(repository.getLoadedCrossRates()).thenReturn(loadedRates);
+        viewModel = new CurrencyConverterViewModel(mock(Context.class), repository);
+    }
+
+    private static RateTable usdRates() {
+        return new RateTable.Builder("USD").put("IDR", 16000.0).build(1000L);
+    }
+
+    private void assertError(String message) {
+        UiState state = viewModel.uiState.getValue();
+        assertTrue(state instanceof UiState.Error);
+        assertEquals(message, ((UiState.Error) state).message);
+    }
+
+    @Test
+    public void resultPastMinorUnits_withLocalRates_showsError() {
+        loadedRates.setValue(new CrossRateEngine(usdRates()));
+
+        viewModel.onConvertClicked("USD", "IDR", HUGE_AMOUNT);
+
+        assertError("Amount is too large");
+    }
+
+    @Test
+    public void resultPastMinorUnits_withFetchedRates_showsError() {
+        viewModel.onConvertClicked("USD", "IDR", HUGE_AMOUNT);
+        assertTrue(viewModel.uiState.getValue() instanceof UiState.Loading);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<RateRequest.Listener<RateTable>> listener = ArgumentCaptor.forClass(RateRequest.Listener.class);
+        verify(repository).requestExchangeRates(anyString(), eq("USD"), listener.capture());
+        listener.getValue().onSuccess(usdRates());
+
+        assertError("Amount is too large");
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.currencyconverter.ui.favorites;
+
+import com.example.currencyconverter.Benchmark;
+import com.example.currencyconverter.data.local.entity.FavoriteConversion;
+import com.example.currencyconverter.data.money.Money;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * FavoriteItem must render exactly what the adapter used to format in bind
+ */
+public class FavoriteItemTest {
+
+    private static final int ROWS = 50;
+    private static final int BENCHMARK_ROWS = 10_000;
+    private static final int WARMUP_PASSES = 3;
+    // Scrolling the list top to bottom and back a few times
+    private static final int SCROLL_PASSES = 5;
+    private static final String[] CODES = { "USD", "EUR", "JPY", "KWD", "GBP", "TRY" };
+
+    private static List<FavoriteConversion> favorites;
+
+    @BeforeClass
+    public static void createFavorites() {
+        favorites = loadFavorites(ROWS);
+    }
+
+    /**
+     * Rows as a Room query returns them: fresh entities and code strings on every load
+     */
+    private static List<FavoriteConversion> loadFavorites(int rows) {
+        List<FavoriteConversion> loaded = new ArrayList<>(rows);
+        long timestamp = 1714003201000L;
+        for (int i = 0; i < rows; i++) {
+            FavoriteConversion favorite = new FavoriteConversion(new String(CODES[i % CODES.length]),
+                    new String(CODES[(i + 1) % CODES.length]), 1000L + i, 3217L * i, timestamp - i * 60_000L);
+            favorite.setId(rows - i);
+            loaded.add(favorite);
+        }
+        return loaded;
+    }
+
+    @Test
+    public void from_matchesPreviousBindOutput() {
+        for (FavoriteConversion favorite : favorites) {
+            FavoriteItem item = FavoriteItem.from(favorite);
+            assertEquals(legacyConversion(favorite), item.getConversionText());
+            assertEquals(legacyDate(favorite), item.getDateText());
+        }
+    }
+
+    @Test
+    public void hasSameContent_comparesRenderedFields() {
+        FavoriteConversion a = new FavoriteConversion("USD", "EUR", 1000, 920, 5000);
+        FavoriteConversion b = new FavoriteConversion("USD", "EUR", 1000, 920, 5000);
+        FavoriteConversion otherPair = new FavoriteConversion("USD", "GBP", 1000, 920, 5000);
+        FavoriteConversion otherResult = new FavoriteConversion("USD", "EUR", 1000, 921, 5000);
+        FavoriteConversion longCode = new FavoriteConversion("USDT", "EUR", 1000, 920, 5000);
+        FavoriteConversion otherLongCode = new FavoriteConversion("USDC", "EUR", 1000, 920, 5000);
+
+        assertTrue(FavoriteItem.from(a).hasSameContent(FavoriteItem.from(b)));
+        assertFalse(FavoriteItem.from(a).hasSameContent(FavoriteItem.from(otherPair)));
+        assertFalse(FavoriteItem.from(a).hasSameContent(FavoriteItem.from(otherResult)));
+        assertTrue(FavoriteItem.from(longCode).hasSameContent(FavoriteItem.from(longCode)));
+        assertFalse(FavoriteItem.from(longCode).hasSameContent(FavoriteItem.from(otherLongCode)));
+    }
+
+    /**
+     * One page load, a few scroll passes and a reload diff over 10k rows,
+     * against the adapter formatting in bind and comparing currency strings
+     *
+     * Runs on the JVM: a bind is modelled as producing the two strings a row
+     * shows, which is all the old bind computed besides setText.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_precomputedItemsVsFormatInBind() {
+        List<FavoriteConversion> loaded = loadFavorites(BENCHMARK_ROWS);
+        List<FavoriteConversion> reloaded = loadFavorites(BENCHMARK_ROWS);
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            formatInBind(loaded);
+            legacyDiff(loaded, reloaded);
+            itemDiff(buildItems(loaded), buildItems(reloaded));
+        }
+
+        // Old adapter: every bind formats, diffs compare currency codes
+        long[] legacyBind = measure(() -> {
+            int sink = 0;
+            for (int pass = 0; pass < SCROLL_PASSES; pass++) {
+                sink += formatInBind(loaded);
+            }
+            return sink;
+        });
+        long[] legacyDiff = measure(() -> legacyDiff(loaded, reloaded));
+
+        // Items are formatted once per page load, off the main thread
+        List<List<FavoriteItem>> built = new ArrayList<>(1);
+        long[] load = measure(() -> {
+            built.add(buildItems(loaded));
+            return built.get(0).size();
+        });
+        List<FavoriteItem> items = built.get(0);
+        long[] itemBind = measure(() -> {
+            int sink = 0;
+            for (int pass = 0; pass < SCROLL_PASSES; pass++) {
+                sink += bindItems(items);
+            }
+            return sink;
+        });
+        List<FavoriteItem> reloadedItems = buildItems(reloaded);
+        long[] itemDiff = measure(() -> itemDiff(items, reloadedItems));
+
+        long binds = (long) BENCHMARK_ROWS * SCROLL_PASSES;
+        System.out.printf("%,d rows, %d scroll passes%n", BENCHMARK_ROWS, SCROLL_PASSES);
+        System.out.printf("Format in bind: %,d ns/bind, %,d bytes/bind%n",
+                legacyBind[0] / binds, legacyBind[1] / binds);
+        System.out.printf("Item bind:      %,d ns/bind, %,d bytes/bind%n",
+                itemBind[0] / binds, itemBind[1] / binds);
+        System.out.printf("Item load:      %,d ns/row, %,d bytes/row (background)%n",
+                load[0] / BENCHMARK_ROWS, load[1] / BENCHMARK_ROWS);
+        System.out.printf("Diff, strings:  %,d ns/row, %,d bytes/row%n",
+                legacyDiff[0] / BENCHMARK_ROWS, legacyDiff[1] / BENCHMARK_ROWS);
+        System.out.printf("Diff, items:    %,d ns/row, %,d bytes/row%n",
+                itemDiff[0] / BENCHMARK_ROWS, itemDiff[1] / BENCHMARK_ROWS);
+        System.out.printf("Total:          %,d ms / %,d KB before, %,d ms / %,d KB after%n",
+                (legacyBind[0] + legacyDiff[0]) / 1_000_000, (legacyBind[1] + legacyDiff[1]) / 1024,
+                (load[0] + itemBind[0] + itemDiff[0]) / 1_000_000, (load[1] + itemBind[1] + itemDiff[1]) / 1024);
+
+        // Allocation is deterministic enough to assert; timing is only reported
+        if (legacyBind[1] > 0) {
+            assertTrue("Binding a built item should allocate less than formatting in bind",
+                    itemBind[1] < legacyBind[1]);
+            // Even if every row were bound only once, formatting at load is no worse
+            assertTrue("Building an item should allocate less than one formatting bind",
+                    load[1] / BENCHMARK_ROWS < legacyBind[1] / binds);
+        }
+    }
+
+    private interface Workload {
+        int run();
+    }
+
+    /**
+     * @return { elapsed nanoseconds, bytes allocated (0 if unsupported) }
+     */
+    private static long[] measure(Workload workload) {
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int sink = workload.run();
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+
+        assertTrue(sink > 0);
+        return new long[] { elapsed, bytesBefore < 0 ? 0 : bytes };
+    }
+
+    private static int formatInBind(List<FavoriteConversion> rows) {
+        int sink = 0;
+        for (int position = 0; position < rows.size(); position++) {
+            FavoriteConversion favorite = rows.get(position);
+            sink += legacyConversion(favorite).length() + legacyDate(favorite).length();
+        }
+        return sink;
+    }
+
+    private static List<FavoriteItem> buildItems(List<FavoriteConversion> rows) {
+        List<FavoriteItem> items = new ArrayList<>(rows.size());
+        for (FavoriteConversion favorite : rows) {
+            items.add(FavoriteItem.from(favorite));
+        }
+        return items;
+    }
+
+    private static int bindItems(List<FavoriteItem> items) {
+        int sink = 0;
+        for (int position = 0; position < items.size(); position++) {
+            FavoriteItem item = items.get(position);
+            sink += item.getConversionText().length() + item.getDateText().length();
+        }
+        return sink;
+    }
+
+    /**
+     * areContentsTheSame as the adapter had it on FavoriteConversion
+     */
+    private static int legacyDiff(List<FavoriteConversion> oldRows, List<FavoriteConversion> newRows) {
+        int same = 0;
+        for (int i = 0; i < oldRows.size(); i++) {
+            FavoriteConversion oldItem = oldRows.get(i);
+            FavoriteConversion newItem = newRows.get(i);
+            if (oldItem.getFromCurrency().equals(newItem.getFromCurrency())
+                    && oldItem.getToCurrency().equals(newItem.getToCurrency())
+                    && oldItem.getAmountMinor() == newItem.getAmountMinor()
+                    && oldItem.getResultMinor() == newItem.getResultMinor()) {
+                same++;
+            }
+        }
+        return same;
+    }
+
+    private static int itemDiff(List<FavoriteItem> oldItems, List<FavoriteItem> newItems) {
+        int same = 0;
+        for (int i = 0; i < oldItems.size(); i++) {
+            if (oldItems.get(i).hasSameContent(newItems.get(i))) {
+                same++;
+            }
+        }
+        return same;
+    }
+
+    /**
+     * Conversion line as the adapter built it in bind
+     */
+    private static String legacyConversion(FavoriteConversion favorite) {
+        return Money.format(favorite.getAmountMinor(), favorite.getFromCurrency())
+                + " " + favorite.getFromCurrency() + " = "
+                + Money.format(favorite.getResultMinor(), favorite.getToCurrency())
+                + " " + favorite.getToCurrency();
+    }
+
+    private static String legacyDate(FavoriteConversion favorite) {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+        return sdf.format(new Date(favorite.getTimestamp()));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}